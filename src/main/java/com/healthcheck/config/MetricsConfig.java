@@ -1,10 +1,20 @@
 package com.healthcheck.config;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import com.healthcheck.metrics.ServerTiming;
+import com.healthcheck.metrics.ServerTimingTimer;
+
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -16,43 +26,111 @@ public class MetricsConfig {
     
     private final MeterRegistry meterRegistry;
     
+    // 快取 meter，避免每個 request 都重新 builder + register（Id 建立、tag 排序、registry 查詢）
+    // 命中時只做 get()，不建立 lambda
+    private final Map<String, Map<String, RequestMeters[]>> requestMeters = new ConcurrentHashMap<>(64);
+    private final Map<String, Timer> databaseTimers = new ConcurrentHashMap<>(64);
+    private final Map<String, Timer> s3Timers = new ConcurrentHashMap<>(16);
+    
     public MetricsConfig(@Lazy MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
     }
     
-    public Counter getApiCounter(String endpoint) {
-        return Counter.builder("api.calls")
-                .tag("endpoint", endpoint)
-                .register(meterRegistry);
-    }
-    
-    public Timer getApiTimer(String endpoint) {
-        return Timer.builder("api.response.time")
-                .tag("endpoint", endpoint)
-                .register(meterRegistry);
+    /**
+     * Meters for one (route template, HTTP method, status) combination, used by RequestMetricsFilter.
+     * Status codes index an array, so a hit allocates nothing; codes outside 100-599 share
+     * slot 0 and are tagged {@code status=UNKNOWN}.
+     */
+    public RequestMeters getRequestMeters(String uri, String method, int status) {
+        Map<String, RequestMeters[]> byMethod = requestMeters.get(uri);
+        if (byMethod == null) {
+            byMethod = requestMeters.computeIfAbsent(uri, key -> new ConcurrentHashMap<>(8));
+        }
+        RequestMeters[] byStatus = byMethod.get(method);
+        if (byStatus == null) {
+            byStatus = byMethod.computeIfAbsent(method, key -> new RequestMeters[600]);
+        }
+        int index = status >= 100 && status < 600 ? status : 0;
+        RequestMeters meters = byStatus[index];
+        if (meters == null) {
+            // Benign race: register() returns the same meter for the same id
+            String statusTag = index == 0 ? "UNKNOWN" : String.valueOf(status);
+            meters = new RequestMeters(
+                    Counter.builder("api.calls")
+                            .tag("uri", uri)
+                            .tag("method", method)
+                            .tag("status", statusTag)
+                            .register(meterRegistry),
+                    Timer.builder("api.response.time")
+                            .tag("uri", uri)
+                            .tag("method", method)
+                            .tag("status", statusTag)
+                            .register(meterRegistry));
+            byStatus[index] = meters;
+        }
+        return meters;
     }
     
     public Timer getDatabaseTimer(String operation) {
-        return Timer.builder("database.query.time")
-                .tag("operation", operation)
-                .register(meterRegistry);
+        Timer timer = databaseTimers.get(operation);
+        if (timer != null) {
+            return timer;
+        }
+        // The Server-Timing db phase comes from TimedDataSource; these timers wrap whole service calls
+        return databaseTimers.computeIfAbsent(operation, key -> Timer.builder("database.query.time")
+                .tag("operation", key)
+                .register(meterRegistry));
     }
     
     public Timer getS3Timer(String operation) {
-        return Timer.builder("s3.operation.time")
-                .tag("operation", operation)
-                .register(meterRegistry);
+        Timer timer = s3Timers.get(operation);
+        if (timer != null) {
+            return timer;
+        }
+        return s3Timers.computeIfAbsent(operation, key -> new ServerTimingTimer(
+                Timer.builder("s3.operation.time")
+                        .tag("operation", key)
+                        .register(meterRegistry),
+                ServerTiming.S3));
     }
 
+    // Metric name prefixes per allow-list group (metrics.allow-list.groups)
+    static final Map<String, List<String>> METRIC_GROUPS = Map.of(
+            "custom", List.of("api.", "database.query.time", "s3.operation.time",
+                              "auth.", "hashing.", "healthcheck.", "logging.async.", "logging.sampling."),
+            "pool", List.of("hikaricp.", "jdbc.connections."),
+            "jvm", List.of("jvm.", "process.", "system."),
+            "hibernate", List.of("hibernate."),
+            "tomcat", List.of("tomcat."));
+
     @Bean
     @Lazy  // 延遲初始化
-    public MeterFilter onlyCustomMetrics() {
-        return MeterFilter.accept(id -> {
+    public MeterFilter metricsAllowList(@Value("${metrics.allow-list.groups:custom}") List<String> groups,
+                                        @Value("${metrics.allow-list.extra-prefixes:}") List<String> extraPrefixes) {
+        List<String> prefixes = new ArrayList<>();
+        for (String group : groups) {
+            List<String> groupPrefixes = METRIC_GROUPS.get(group.trim().toLowerCase(Locale.ROOT));
+            if (groupPrefixes == null) {
+                throw new IllegalArgumentException("Unknown metrics allow-list group: " + group
+                        + " (known: " + METRIC_GROUPS.keySet() + ")");
+            }
+            prefixes.addAll(groupPrefixes);
+        }
+        extraPrefixes.stream().map(String::trim).filter(prefix -> !prefix.isEmpty()).forEach(prefixes::add);
+
+        // Everything else is dropped before it reaches any registry
+        String[] allowed = prefixes.toArray(String[]::new);
+        return MeterFilter.denyUnless(id -> {
             String name = id.getName();
-            return name.equals("api.calls") || 
-                   name.equals("api.response.time") ||
-                   name.equals("database.query.time") ||
-                   name.equals("s3.operation.time");
+            for (String prefix : allowed) {
+                if (name.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
         });
     }
-}
\ No newline at end of file
+
+    public record RequestMeters(Counter calls, Timer responseTime) {
+    }
+}
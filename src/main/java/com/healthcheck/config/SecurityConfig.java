@@ -1,7 +1,5 @@
 package com.healthcheck.config;
 
-import java.util.Collections;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,8 +15,20 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
-import com.healthcheck.entity.User;
+import com.healthcheck.dto.UserCredentials;
+import com.healthcheck.security.AdminAccounts;
+import com.healthcheck.security.ApiAuthenticationEntryPoint;
+import com.healthcheck.security.AuthenticatedUser;
+import com.healthcheck.security.CachingDaoAuthenticationProvider;
+import com.healthcheck.security.KnownEmailFilter;
+import com.healthcheck.security.LoginThrottle;
+import com.healthcheck.security.PasswordHashingExecutor;
+import com.healthcheck.security.PooledPasswordEncoder;
+import com.healthcheck.security.TokenAuthenticationFilter;
+import com.healthcheck.security.TokenService;
+import com.healthcheck.security.VerifiedCredentialCache;
 import com.healthcheck.service.UserService;
 
 @Configuration
@@ -26,10 +36,25 @@ import com.healthcheck.service.UserService;
 public class SecurityConfig {
     
     private final UserService userService;
+    private final VerifiedCredentialCache credentialCache;
+    private final TokenService tokenService;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final KnownEmailFilter knownEmailFilter;
+    private final LoginThrottle loginThrottle;
+    private final AdminAccounts adminAccounts;
     
     @Autowired
-    public SecurityConfig(UserService userService) {
+    public SecurityConfig(UserService userService, VerifiedCredentialCache credentialCache,
+                          TokenService tokenService, PasswordHashingExecutor hashingExecutor,
+                          KnownEmailFilter knownEmailFilter, LoginThrottle loginThrottle,
+                          AdminAccounts adminAccounts) {
         this.userService = userService;
+        this.credentialCache = credentialCache;
+        this.tokenService = tokenService;
+        this.hashingExecutor = hashingExecutor;
+        this.knownEmailFilter = knownEmailFilter;
+        this.loginThrottle = loginThrottle;
+        this.adminAccounts = adminAccounts;
     }
     
     @Bean
@@ -38,9 +63,19 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .httpBasic(basic -> basic.authenticationEntryPoint(basicAuthenticationEntryPoint()))
+            // Bearer tokens from POST /v1/token are checked by signature only, Basic stays available
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints
                 .requestMatchers("/healthz").permitAll()
+                .requestMatchers("/livez", "/readyz").permitAll()
+                .requestMatchers(HttpMethod.GET, "/healthz/history").permitAll()
+                // Diagnostics endpoints and any actuator write operation are admin-only
+                .requestMatchers("/actuator/jfr/**", "/actuator/profiler/**").hasRole(AdminAccounts.ROLE)
+                // Slow-request records carry principals, routes and SQL; heavy hitters list user and product ids
+                .requestMatchers("/actuator/slowrequests/**", "/actuator/heavyhitters/**").hasRole(AdminAccounts.ROLE)
+                .requestMatchers(HttpMethod.POST, "/actuator/**").hasRole(AdminAccounts.ROLE)
+                .requestMatchers(HttpMethod.DELETE, "/actuator/**").hasRole(AdminAccounts.ROLE)
                 .requestMatchers("/actuator/**").permitAll()  
                 .requestMatchers("/error").permitAll()
                 .requestMatchers(HttpMethod.POST, "/v1/user").permitAll()
@@ -55,6 +90,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/v1/product/**").permitAll()
                 
                 // Authenticated endpoints
+                .requestMatchers(HttpMethod.POST, "/v1/token").authenticated()
                 .requestMatchers(HttpMethod.GET, "/v1/user/**").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/v1/user/**").authenticated()
                 
@@ -78,22 +114,29 @@ public class SecurityConfig {
     
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        // Throttled emails/IPs are refused up front; repeat requests with already verified credentials skip BCrypt
+        DaoAuthenticationProvider authProvider = new CachingDaoAuthenticationProvider(credentialCache, loginThrottle);
         
         authProvider.setUserDetailsService(username -> {
-            User user = userService.findUserByEmail(username);
+            // Certainly-unknown emails (e.g. credential stuffing) fail without a DB query
+            if (!knownEmailFilter.mightContain(username)) {
+                throw new UsernameNotFoundException("User not found with email: " + username);
+            }
+
+            // Projection of the auth columns only, no full User entity
+            UserCredentials user = userService.findCredentialsByEmail(username);
             if (user == null) {
+                knownEmailFilter.recordFalsePositive();
                 throw new UsernameNotFoundException("User not found with email: " + username);
             }
             
-            return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(Collections.emptyList())
-                .build();
+            // Principal carries id and verified flag so controllers don't re-query the user
+            return new AuthenticatedUser(user.id(), user.email(), user.password(), user.verified(),
+                    adminAccounts.isAdmin(user.email(), user.verified()));
         });
         
-        authProvider.setPasswordEncoder(passwordEncoder());
+        // BCrypt (including the unknown-user timing check) runs on the bounded hashing pool
+        authProvider.setPasswordEncoder(new PooledPasswordEncoder(passwordEncoder(), hashingExecutor));
         return authProvider;
     }
     
@@ -104,7 +147,8 @@ public class SecurityConfig {
     
     @Bean
     public BasicAuthenticationEntryPoint basicAuthenticationEntryPoint() {
-        BasicAuthenticationEntryPoint entryPoint = new BasicAuthenticationEntryPoint();
+        // 503 + Retry-After when the hashing pool sheds load, 429 when throttled, 401 otherwise
+        BasicAuthenticationEntryPoint entryPoint = new ApiAuthenticationEntryPoint();
         entryPoint.setRealmName("webapp");
         return entryPoint;
     }
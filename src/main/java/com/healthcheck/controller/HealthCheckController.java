@@ -1,5 +1,9 @@
 package com.healthcheck.controller;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -10,10 +14,13 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.healthcheck.config.MetricsConfig;
-import com.healthcheck.service.HealthCheckService;
+import com.healthcheck.dto.LatencyWindowResponse;
+import com.healthcheck.service.HealthCheckCoalescer;
+import com.healthcheck.service.HealthCheckProber;
+import com.healthcheck.service.ProbeLatencyHistory;
+import com.healthcheck.service.ReadinessService;
 
 import lombok.extern.slf4j.Slf4j;
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -21,12 +28,20 @@ import jakarta.servlet.http.HttpServletRequest;
 @RestController
 public class HealthCheckController {
     
-    private final HealthCheckService healthCheckService;
+    private final HealthCheckCoalescer healthCheckCoalescer;
+    private final HealthCheckProber healthCheckProber;
+    private final ReadinessService readinessService;
+    private final ProbeLatencyHistory latencyHistory;
     private final MetricsConfig metricsConfig;
 
     @Autowired
-    public HealthCheckController(HealthCheckService healthCheckService, MetricsConfig metricsConfig) {
-        this.healthCheckService = healthCheckService;
+    public HealthCheckController(HealthCheckCoalescer healthCheckCoalescer, HealthCheckProber healthCheckProber,
+                                 ReadinessService readinessService, ProbeLatencyHistory latencyHistory,
+                                 MetricsConfig metricsConfig) {
+        this.healthCheckCoalescer = healthCheckCoalescer;
+        this.healthCheckProber = healthCheckProber;
+        this.readinessService = readinessService;
+        this.latencyHistory = latencyHistory;
         this.metricsConfig = metricsConfig;
     }
 
@@ -34,10 +49,6 @@ public class HealthCheckController {
     public ResponseEntity<Void> healthCheck(HttpServletRequest request) {
         log.info("Demo GET /healthz - Health check request received");
         
-        Counter counter = metricsConfig.getApiCounter("GET_healthz");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
-        
         try {
             // Check for query parameters
             if (request.getQueryString() != null && !request.getQueryString().isEmpty()) {
@@ -52,10 +63,16 @@ public class HealthCheckController {
                 return createHealthCheckResponse(HttpStatus.BAD_REQUEST);
             }
 
-            // Perform health check with database monitoring
-            Timer.Sample dbSample = Timer.start();
-            boolean isHealthy = healthCheckService.performHealthCheck();
-            dbSample.stop(metricsConfig.getDatabaseTimer("health_check"));
+            boolean isHealthy;
+            if (healthCheckProber.isEnabled()) {
+                // Answer from the background prober's latest result, no DB work on the request thread
+                isHealthy = healthCheckProber.isHealthy();
+            } else {
+                // Perform health check with database monitoring; concurrent probes share one check
+                Timer.Sample dbSample = Timer.start();
+                isHealthy = healthCheckCoalescer.performHealthCheck();
+                dbSample.stop(metricsConfig.getDatabaseTimer("health_check"));
+            }
 
             if (isHealthy) {
                 log.info("GET /healthz - Health check successful");
@@ -68,8 +85,6 @@ public class HealthCheckController {
         } catch (Exception e) {
             log.error("GET /healthz - Health check error occurred", e);
             return createHealthCheckResponse(HttpStatus.SERVICE_UNAVAILABLE);
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("GET_healthz"));
         }
     }
 
@@ -85,41 +100,66 @@ public class HealthCheckController {
     public ResponseEntity<Void> healthCheckMethodNotAllowed(HttpServletRequest request) {
         log.warn("{} /healthz - Method not allowed", request.getMethod());
         
-        Counter counter = metricsConfig.getApiCounter("UNSUPPORTED_healthz");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
-        
-        try {
-            return createHealthCheckResponse(HttpStatus.METHOD_NOT_ALLOWED);
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("UNSUPPORTED_healthz"));
+        return createHealthCheckResponse(HttpStatus.METHOD_NOT_ALLOWED);
+    }
+
+    /**
+     * Liveness probe: the process is up and serving requests. No database or
+     * other I/O, so a dependency outage never gets the instance restarted.
+     */
+    @GetMapping("/livez")
+    public ResponseEntity<Void> liveness() {
+        return createHealthCheckResponse(HttpStatus.OK);
+    }
+
+    /**
+     * Readiness probe: answers from the cached dependency checks in
+     * {@link ReadinessService}, 200 when all are up, 503 otherwise.
+     */
+    @GetMapping("/readyz")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        boolean ready = readinessService.isReady();
+        if (!ready) {
+            log.warn("GET /readyz - Not ready: {}", readinessService.describe());
         }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", ready ? "UP" : "DOWN");
+        body.put("checks", readinessService.describe());
+        return new ResponseEntity<>(body, noCacheHeaders(),
+                ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Probe DB latency percentiles over the configured windows
+     * GET /healthz/history
+     *
+     * @return 200 OK with p50/p95/p99/max per window, served from memory
+     */
+    @GetMapping("/healthz/history")
+    public ResponseEntity<List<LatencyWindowResponse>> healthCheckHistory() {
+        return new ResponseEntity<>(latencyHistory.snapshot(), noCacheHeaders(), HttpStatus.OK);
     }
 
     @GetMapping("/")
     public ResponseEntity<String> root() {
         log.info("GET / - Root endpoint accessed");
         
-        Counter counter = metricsConfig.getApiCounter("GET_root");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
-        
-        try {
-            String message = "Cloud-Native Health Check API. Use /healthz for health checks.";
-            log.debug("GET / - Returning root message");
-            return ResponseEntity.ok(message);
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("GET_root"));
-        }
+        String message = "Cloud-Native Health Check API. Use /healthz for health checks.";
+        log.debug("GET / - Returning root message");
+        return ResponseEntity.ok(message);
     }
 
     private ResponseEntity<Void> createHealthCheckResponse(HttpStatus status) {
+        return new ResponseEntity<>(noCacheHeaders(), status);
+    }
+
+    private HttpHeaders noCacheHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.set("Cache-Control", "no-cache, no-store, must-revalidate");
         headers.set("Pragma", "no-cache");
         headers.set("X-Content-Type-Options", "nosniff");
-        
-        return new ResponseEntity<>(headers, status);
+        return headers;
     }
 
     private boolean hasRequestBody(HttpServletRequest request) {
@@ -12,7 +12,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
@@ -20,13 +20,11 @@ import org.springframework.web.server.ResponseStatusException;
 import com.healthcheck.config.MetricsConfig;
 import com.healthcheck.entity.Image;
 import com.healthcheck.entity.Product;
-import com.healthcheck.entity.User;
 import com.healthcheck.repository.ImageRepository;
 import com.healthcheck.repository.ProductRepository;
-import com.healthcheck.repository.UserRepository;
+import com.healthcheck.security.AuthenticatedUser;
 import com.healthcheck.service.S3Service;
 
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
@@ -45,9 +43,6 @@ public class ImageController {
     @Autowired
     private ProductRepository productRepository;
     
-    @Autowired
-    private UserRepository userRepository;
-    
     @Autowired
     private MetricsConfig metricsConfig;
     
@@ -61,14 +56,10 @@ public class ImageController {
     public ResponseEntity<?> uploadImage(
             @PathVariable Long productId,
             @RequestParam("file") MultipartFile file,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
         log.info("POST /v1/product/{}/image - Uploading image: {} by user: {}", 
-                 productId, file.getOriginalFilename(), authentication.getName());
-        
-        Counter counter = metricsConfig.getApiCounter("POST_v1_product_image");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
+                 productId, file.getOriginalFilename(), user.getUsername());
         
         try {
             // Validate file is not empty
@@ -88,16 +79,8 @@ public class ImageController {
                 return ResponseEntity.badRequest().body(error);
             }
             
-            // Get current user
-            String username = authentication.getName();
-            Timer.Sample dbSample = Timer.start();
-            User user = userRepository.findByUsername(username);
-            dbSample.stop(metricsConfig.getDatabaseTimer("user_findByUsername"));
-            
-            if (user == null) {
-                log.error("POST /v1/product/{}/image - User not found: {}", productId, username);
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
-            }
+            // Current user comes from the principal loaded during authentication
+            String username = user.getUsername();
 
             // 加入驗證檢查
             if (!user.isVerified()) {
@@ -163,8 +146,6 @@ public class ImageController {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to upload image");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("POST_v1_product_image"));
         }
     }
     
@@ -175,111 +156,80 @@ public class ImageController {
         
         log.info("GET /v1/product/{}/image/{} - Retrieving image", productId, imageId);
         
-        Counter counter = metricsConfig.getApiCounter("GET_v1_product_image_by_id");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
+        // Verify image exists
+        Timer.Sample dbSample = Timer.start();
+        Image image = imageRepository.findById(imageId)
+                .orElseThrow(() -> {
+                    log.warn("GET /v1/product/{}/image/{} - Image not found", productId, imageId);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found");
+                });
+        dbSample.stop(metricsConfig.getDatabaseTimer("image_findById"));
         
-        try {
-            // Verify image exists
-            Timer.Sample dbSample = Timer.start();
-            Image image = imageRepository.findById(imageId)
-                    .orElseThrow(() -> {
-                        log.warn("GET /v1/product/{}/image/{} - Image not found", productId, imageId);
-                        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found");
-                    });
-            dbSample.stop(metricsConfig.getDatabaseTimer("image_findById"));
-            
-            // Verify image belongs to the product
-            if (!image.getProductId().equals(productId)) {
-                log.warn("GET /v1/product/{}/image/{} - Image does not belong to product", 
-                         productId, imageId);
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found");
-            }
-            
-            // Return image metadata
-            Map<String, Object> responseMap = new HashMap<>();
-            responseMap.put("image_id", image.getImageId());
-            responseMap.put("product_id", image.getProductId());
-            responseMap.put("file_name", image.getFileName());
-            responseMap.put("date_created", image.getDateCreated().toString());
-            responseMap.put("s3_bucket_path", image.getS3BucketPath());
-            
-            log.info("GET /v1/product/{}/image/{} - Image retrieved successfully", productId, imageId);
-            return ResponseEntity.ok(responseMap);
-            
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("GET_v1_product_image_by_id"));
+        // Verify image belongs to the product
+        if (!image.getProductId().equals(productId)) {
+            log.warn("GET /v1/product/{}/image/{} - Image does not belong to product", 
+                     productId, imageId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found");
         }
+        
+        // Return image metadata
+        Map<String, Object> responseMap = new HashMap<>();
+        responseMap.put("image_id", image.getImageId());
+        responseMap.put("product_id", image.getProductId());
+        responseMap.put("file_name", image.getFileName());
+        responseMap.put("date_created", image.getDateCreated().toString());
+        responseMap.put("s3_bucket_path", image.getS3BucketPath());
+        
+        log.info("GET /v1/product/{}/image/{} - Image retrieved successfully", productId, imageId);
+        return ResponseEntity.ok(responseMap);
     }
     
     @GetMapping
     public ResponseEntity<?> getAllImages(@PathVariable Long productId) {  
         log.info("GET /v1/product/{}/image - Retrieving all images", productId);
         
-        Counter counter = metricsConfig.getApiCounter("GET_v1_product_images");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
+        // Verify product exists
+        Timer.Sample dbProductSample = Timer.start();
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> {
+                    log.warn("GET /v1/product/{}/image - Product not found", productId);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
+                });
+        dbProductSample.stop(metricsConfig.getDatabaseTimer("product_findById"));
         
-        try {
-            // Verify product exists
-            Timer.Sample dbProductSample = Timer.start();
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> {
-                        log.warn("GET /v1/product/{}/image - Product not found", productId);
-                        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
-                    });
-            dbProductSample.stop(metricsConfig.getDatabaseTimer("product_findById"));
-            
-            // Get all images
-            Timer.Sample dbImageSample = Timer.start();
-            List<Image> images = imageRepository.findByProductId(productId);
-            dbImageSample.stop(metricsConfig.getDatabaseTimer("image_findByProductId"));
-            
-            List<Map<String, Object>> response = new ArrayList<>();
-            
-            for (Image img : images) {
-                Map<String, Object> map = new HashMap<>();
-                map.put("image_id", img.getImageId());
-                map.put("product_id", img.getProductId());
-                map.put("file_name", img.getFileName());
-                map.put("date_created", img.getDateCreated().toString());
-                map.put("s3_bucket_path", img.getS3BucketPath());
-                response.add(map);
-            }
-            
-            log.info("GET /v1/product/{}/image - Retrieved {} images", productId, images.size());
-            return ResponseEntity.ok(response);
-            
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("GET_v1_product_images"));
+        // Get all images
+        Timer.Sample dbImageSample = Timer.start();
+        List<Image> images = imageRepository.findByProductId(productId);
+        dbImageSample.stop(metricsConfig.getDatabaseTimer("image_findByProductId"));
+        
+        List<Map<String, Object>> response = new ArrayList<>();
+        
+        for (Image img : images) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("image_id", img.getImageId());
+            map.put("product_id", img.getProductId());
+            map.put("file_name", img.getFileName());
+            map.put("date_created", img.getDateCreated().toString());
+            map.put("s3_bucket_path", img.getS3BucketPath());
+            response.add(map);
         }
+        
+        log.info("GET /v1/product/{}/image - Retrieved {} images", productId, images.size());
+        return ResponseEntity.ok(response);
     }
     
     @DeleteMapping("/{imageId}")
     public ResponseEntity<?> deleteImage(
             @PathVariable Long productId,
             @PathVariable Long imageId,
-            Authentication authentication) { 
+            @AuthenticationPrincipal AuthenticatedUser user) { 
         
         log.info("DELETE /v1/product/{}/image/{} - Deleting image by user: {}", 
-                 productId, imageId, authentication.getName());
-        
-        Counter counter = metricsConfig.getApiCounter("DELETE_v1_product_image");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
+                 productId, imageId, user.getUsername());
         
         try {
-            // Get current user
-            String username = authentication.getName();
-            Timer.Sample dbUserSample = Timer.start();
-            User user = userRepository.findByUsername(username);
-            dbUserSample.stop(metricsConfig.getDatabaseTimer("user_findByUsername"));
-            
-            if (user == null) {
-                log.error("DELETE /v1/product/{}/image/{} - User not found: {}", 
-                          productId, imageId, username);
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
-            }
+            // Current user comes from the principal loaded during authentication
+            String username = user.getUsername();
             
             // 加入驗證檢查
             if (!user.isVerified()) {
@@ -347,8 +297,6 @@ public class ImageController {
                       productId, imageId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to delete image"));
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("DELETE_v1_product_image"));
         }
     }
 }
\ No newline at end of file
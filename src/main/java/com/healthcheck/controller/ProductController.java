@@ -3,17 +3,15 @@ package com.healthcheck.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import com.healthcheck.config.MetricsConfig;
 import com.healthcheck.dto.ProductCreateRequest;
 import com.healthcheck.dto.ProductResponse;
-import com.healthcheck.entity.User;
+import com.healthcheck.security.AuthenticatedUser;
 import com.healthcheck.service.ProductService;
-import com.healthcheck.service.UserService;
 
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -24,38 +22,21 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductController {
     
     private final ProductService productService;
-    private final UserService userService;
     private final MetricsConfig metricsConfig;
     
     @Autowired
-    public ProductController(ProductService productService, UserService userService, MetricsConfig metricsConfig) {
+    public ProductController(ProductService productService, MetricsConfig metricsConfig) {
         this.productService = productService;
-        this.userService = userService;
         this.metricsConfig = metricsConfig;
     }
     
     @PostMapping("/product")
     public ResponseEntity<?> createProduct(@Valid @RequestBody ProductCreateRequest request, 
-                                          Authentication authentication) {
+                                          @AuthenticationPrincipal AuthenticatedUser user) {
         log.info("POST /v1/product - Creating product with SKU: {} by user: {}", 
-                 request.getSku(), authentication.getName());
-        
-        Counter counter = metricsConfig.getApiCounter("POST_v1_product");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
+                 request.getSku(), user.getUsername());
         
         try {
-            String email = authentication.getName();
-            
-            Timer.Sample dbSample = Timer.start();
-            User user = userService.findUserByEmail(email);
-            dbSample.stop(metricsConfig.getDatabaseTimer("user_findByEmail"));
-            
-            if (user == null) {
-                log.error("POST /v1/product - User not found: {}", email);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-            
             if(!user.isVerified()){
                 log.warn("POST /v1/product - Email not verified: {}", user.getUsername());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -76,8 +57,6 @@ public class ProductController {
             }
             log.error("POST /v1/product - Failed to create product with SKU: {}", request.getSku(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("POST_v1_product"));
         }
     }
 
@@ -85,10 +64,6 @@ public class ProductController {
     public ResponseEntity<?> getProduct(@PathVariable Long productId) {
         log.info("GET /v1/product/{} - Retrieving product", productId);
         
-        Counter counter = metricsConfig.getApiCounter("GET_v1_product");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
-        
         try {
             Timer.Sample dbSample = Timer.start();
             ProductResponse response = productService.getProductById(productId);
@@ -101,34 +76,17 @@ public class ProductController {
         } catch (RuntimeException e) {
             log.warn("GET /v1/product/{} - Product not found", productId);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("GET_v1_product"));
         }
     }
     
     @PutMapping("/product/{productId}")
     public ResponseEntity<?> updateProduct(@PathVariable Long productId,
                                         @RequestBody ProductCreateRequest request,
-                                        Authentication authentication) {
+                                        @AuthenticationPrincipal AuthenticatedUser user) {
         log.info("PUT /v1/product/{} - Updating product by user: {}", 
-                 productId, authentication.getName());
-        
-        Counter counter = metricsConfig.getApiCounter("PUT_v1_product");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
+                 productId, user.getUsername());
         
         try {
-            String email = authentication.getName();
-            
-            Timer.Sample dbSample = Timer.start();
-            User user = userService.findUserByEmail(email);
-            dbSample.stop(metricsConfig.getDatabaseTimer("user_findByEmail"));
-            
-            if (user == null) {
-                log.error("PUT /v1/product/{} - User not found: {}", productId, email);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
             // 加入驗證檢查 
             if (!user.isVerified()) {
                 log.warn("PUT /v1/product/{} - Email not verified: {}", productId, user.getUsername());
@@ -148,7 +106,7 @@ public class ProductController {
             
             if (message.contains("access denied")) {
                 log.warn("PUT /v1/product/{} - Access denied for user: {}", 
-                         productId, authentication.getName());
+                         productId, user.getUsername());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (message.contains("not found")) {
@@ -162,34 +120,17 @@ public class ProductController {
             }
             log.error("PUT /v1/product/{} - Failed to update product", productId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("PUT_v1_product"));
         }
     }
     
     @PatchMapping("/product/{productId}")
     public ResponseEntity<?> patchProduct(@PathVariable Long productId,
                                          @RequestBody ProductCreateRequest request,
-                                         Authentication authentication) {
+                                         @AuthenticationPrincipal AuthenticatedUser user) {
         log.info("PATCH /v1/product/{} - Partially updating product by user: {}", 
-                 productId, authentication.getName());
-        
-        Counter counter = metricsConfig.getApiCounter("PATCH_v1_product");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
+                 productId, user.getUsername());
         
         try {
-            String email = authentication.getName();
-            
-            Timer.Sample dbSample = Timer.start();
-            User user = userService.findUserByEmail(email);
-            dbSample.stop(metricsConfig.getDatabaseTimer("user_findByEmail"));
-            
-            if (user == null) {
-                log.error("PATCH /v1/product/{} - User not found: {}", productId, email);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-
             // 加入驗證檢查
             if (!user.isVerified()) {
                 log.warn("PATCH /v1/product/{} - Email not verified: {}", productId, user.getUsername());
@@ -209,7 +150,7 @@ public class ProductController {
             
             if (message.contains("access denied") || message.contains("not found or access denied")) {
                 log.warn("PATCH /v1/product/{} - Access denied for user: {}", 
-                         productId, authentication.getName());
+                         productId, user.getUsername());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (message.contains("not found")) {
@@ -222,33 +163,16 @@ public class ProductController {
             }
             log.error("PATCH /v1/product/{} - Failed to patch product", productId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("PATCH_v1_product"));
         }
     }
 
     @DeleteMapping("/product/{productId}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long productId,
-                                          Authentication authentication) {
+                                          @AuthenticationPrincipal AuthenticatedUser user) {
         log.info("DELETE /v1/product/{} - Deleting product by user: {}", 
-                 productId, authentication.getName());
-        
-        Counter counter = metricsConfig.getApiCounter("DELETE_v1_product");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
+                 productId, user.getUsername());
         
         try {
-            String email = authentication.getName();
-            
-            Timer.Sample dbSample = Timer.start();
-            User user = userService.findUserByEmail(email);
-            dbSample.stop(metricsConfig.getDatabaseTimer("user_findByEmail"));
-            
-            if (user == null) {
-                log.error("DELETE /v1/product/{} - User not found: {}", productId, email);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-            
             // 加入驗證檢查
             if (!user.isVerified()) {
                 log.warn("DELETE /v1/product/{} - Email not verified: {}", productId, user.getUsername());
@@ -268,7 +192,7 @@ public class ProductController {
             
             if (message.contains("access denied") || message.contains("not found or access denied")) {
                 log.warn("DELETE /v1/product/{} - Access denied for user: {}", 
-                         productId, authentication.getName());
+                         productId, user.getUsername());
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             if (message.contains("not found")) {
@@ -277,8 +201,6 @@ public class ProductController {
             }
             log.error("DELETE /v1/product/{} - Failed to delete product", productId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("DELETE_v1_product"));
         }
     }
 }
\ No newline at end of file
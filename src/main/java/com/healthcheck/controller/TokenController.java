@@ -0,0 +1,51 @@
+package com.healthcheck.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.healthcheck.dto.TokenResponse;
+import com.healthcheck.security.AuthenticatedUser;
+import com.healthcheck.security.BearerTokenAuthentication;
+import com.healthcheck.security.TokenService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1")
+public class TokenController {
+
+    private final TokenService tokenService;
+
+    @Autowired
+    public TokenController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Exchange Basic credentials for a short-lived bearer token
+     * POST /v1/token
+     *
+     * @return 200 OK with the token, 401 if the caller did not authenticate with a password
+     */
+    @PostMapping("/token")
+    public ResponseEntity<?> issueToken(Authentication authentication) {
+        log.info("POST /v1/token - Issuing token for user: {}", authentication.getName());
+
+        // A token must not be able to renew itself indefinitely
+        if (authentication instanceof BearerTokenAuthentication) {
+            log.warn("POST /v1/token - Token renewal without credentials rejected for user: {}",
+                     authentication.getName());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        String token = tokenService.issueToken((AuthenticatedUser) authentication.getPrincipal());
+        log.info("POST /v1/token - Token issued for user: {}", authentication.getName());
+        return ResponseEntity.ok(new TokenResponse(token, tokenService.getTtlSeconds()));
+    }
+}
@@ -3,7 +3,7 @@ package com.healthcheck.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,9 +17,10 @@ import com.healthcheck.dto.UserCreateRequest;
 import com.healthcheck.dto.UserResponse;
 import com.healthcheck.dto.UserUpdateRequest;
 import com.healthcheck.entity.User;
+import com.healthcheck.exception.HashingCapacityExceededException;
+import com.healthcheck.security.AuthenticatedUser;
 import com.healthcheck.service.UserService;
 
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -42,11 +43,6 @@ public class UserController {
     public ResponseEntity<?> createUser(@Valid @RequestBody UserCreateRequest request) {
         log.info("POST /v1/user - Creating user with email: {}", request.getEmail());  // ← 添加日誌
         
-        // CloudWatch Metrics - API 調用計數和響應時間
-        Counter counter = metricsConfig.getApiCounter("POST_v1_user");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
-        
         try {
             // 數據庫操作監控
             Timer.Sample dbSample = Timer.start();
@@ -56,6 +52,9 @@ public class UserController {
             log.info("POST /v1/user - User created successfully with ID: {}", createdUserResponse.getId());  // ← 添加日誌
             return ResponseEntity.status(HttpStatus.CREATED).body(createdUserResponse);
 
+        } catch (HashingCapacityExceededException e) {
+            log.warn("POST /v1/user - Hashing pool saturated, shedding request for: {}", request.getEmail());
+            throw e;  // 503 + Retry-After via GlobalExceptionHandler
         } catch (RuntimeException e) {
             if (e.getMessage().contains("already exists")) {
                 log.warn("POST /v1/user - User already exists: {}", request.getEmail());  // ← 添加警告日誌
@@ -63,32 +62,19 @@ public class UserController {
             }
             log.error("POST /v1/user - Failed to create user: {}", request.getEmail(), e);  // ← 添加錯誤日誌（包含 stack trace）
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("POST_v1_user"));
         }
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getUserById(@PathVariable Long userId,Authentication authentication) {
+    public ResponseEntity<?> getUserById(@PathVariable Long userId,
+                                         @AuthenticationPrincipal AuthenticatedUser currentUser) {
 
         log.info("GET /v1/user/{} - Retrieving user", userId);  // ← 添加日誌
 
-        // CloudWatch Metrics - API 調用計數和響應時間
-        Counter counter = metricsConfig.getApiCounter("GET_v1_user");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
-        
         try {
-            // ← 加入認證用戶檢查
-            if (authentication == null) {
-                log.warn("GET /v1/user/{} - No authentication provided", userId);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-            
-            // ← 獲取當前登入用戶
-            User currentUser = userService.findUserByEmail(authentication.getName());
+            // ← 加入認證用戶檢查 (principal loaded during authentication, no extra lookup)
             if (currentUser == null) {
-                log.warn("GET /v1/user/{} - Current user not found", userId);
+                log.warn("GET /v1/user/{} - No authentication provided", userId);
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
             
@@ -122,23 +108,16 @@ public class UserController {
         } catch (RuntimeException e) {
             log.error("GET /v1/user/{} - Failed to retrieve user", userId, e);  // ← 添加錯誤日誌
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("GET_v1_user"));
         }
     }
     
     @PutMapping("/user/{userId}")
     public ResponseEntity<?> updateUserById(@PathVariable Long userId,
                                        @Valid @RequestBody UserUpdateRequest request,
-                                       Authentication authentication) {
+                                       @AuthenticationPrincipal AuthenticatedUser currentUser) {
         
-        log.info("PUT /v1/user/{} - Updating user by: {}", userId, authentication.getName());  // ← 添加日誌  
+        log.info("PUT /v1/user/{} - Updating user by: {}", userId, currentUser.getUsername());  // ← 添加日誌  
 
-        // CloudWatch Metrics - API 調用計數和響應時間
-        Counter counter = metricsConfig.getApiCounter("PUT_v1_user");
-        Timer.Sample sample = Timer.start();
-        counter.increment();
-        
         try {
             // 檢查是否嘗試更新不允許的字段
             if (request.getUsername() != null) {
@@ -146,16 +125,6 @@ public class UserController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build(); //400
             }
             
-            // 數據庫操作監控 - 查找當前用戶
-            Timer.Sample dbSample = Timer.start();
-            User currentUser = userService.findUserByEmail(authentication.getName());
-            dbSample.stop(metricsConfig.getDatabaseTimer("user_findByEmail"));
-            
-            if (currentUser == null) {
-                log.error("PUT /v1/user/{} - Current user not found: {}", userId, authentication.getName());  // ← 添加日誌
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build(); //403
-            }
-
             // ← 加這個檢查！
             if (!currentUser.isVerified()) {
                 log.warn("PUT /v1/user/{} - User email not verified: {}", userId, currentUser.getUsername());
@@ -171,12 +140,15 @@ public class UserController {
             
             // 數據庫操作監控 - 更新用戶
             Timer.Sample dbUpdateSample = Timer.start();
-            userService.updateUser(authentication.getName(), request);
+            userService.updateUser(currentUser.getUsername(), request);
             dbUpdateSample.stop(metricsConfig.getDatabaseTimer("user_update"));
             
             log.info("PUT /v1/user/{} - User updated successfully", userId);  // ← 添加日誌
             return ResponseEntity.noContent().build(); // 返回 204 No Content
             
+        } catch (HashingCapacityExceededException e) {
+            log.warn("PUT /v1/user/{} - Hashing pool saturated, shedding request", userId);
+            throw e;  // 503 + Retry-After via GlobalExceptionHandler
         } catch (RuntimeException e) {
             if (e.getMessage().contains("not found")) {
                 log.warn("PUT /v1/user/{} - User not found", userId);  // ← 添加日誌
@@ -184,8 +156,6 @@ public class UserController {
             }
             log.error("PUT /v1/user/{} - Failed to update user", userId, e);  // ← 添加錯誤日誌
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        } finally {
-            sample.stop(metricsConfig.getApiTimer("PUT_v1_user"));
         }
     }
 }
\ No newline at end of file
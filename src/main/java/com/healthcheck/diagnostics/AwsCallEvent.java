@@ -0,0 +1,47 @@
+package com.healthcheck.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One S3 or SNS API call made through S3Service or SnsService.
+ *
+ * Usage: {@code AwsCallEvent event = AwsCallEvent.start("s3", "PutObject");}
+ * then {@code event.finish(succeeded)} in a finally block.
+ */
+@Name("com.healthcheck.AwsCall")
+@Label("AWS Call")
+@Category({"Health Check API", "AWS"})
+@Description("S3 or SNS API call")
+@StackTrace(false)
+public class AwsCallEvent extends Event {
+
+    @Label("Service")
+    public String service;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public static AwsCallEvent start(String service, String operation) {
+        AwsCallEvent event = new AwsCallEvent();
+        event.service = service;
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void finish(boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
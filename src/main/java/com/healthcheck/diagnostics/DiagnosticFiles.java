@@ -0,0 +1,49 @@
+package com.healthcheck.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retention for files written by the diagnostics endpoints (JFR recordings,
+ * collapsed-stack profiles), so repeated sessions cannot fill the log volume.
+ */
+@Slf4j
+final class DiagnosticFiles {
+
+    private DiagnosticFiles() {
+    }
+
+    /**
+     * Delete the oldest files in {@code directory} matching {@code glob} until at
+     * most {@code keep} remain. File names carry a UTC timestamp, so name order is
+     * age order.
+     */
+    static void prune(Path directory, String glob, int keep) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            log.warn("Could not list {} in {}: {}", glob, directory, e.getMessage());
+            return;
+        }
+        Collections.sort(files);
+        for (int i = 0; i < files.size() - Math.max(0, keep); i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+                log.info("Deleted old diagnostics file {}", files.get(i));
+            } catch (IOException e) {
+                log.warn("Could not delete {}: {}", files.get(i), e.getMessage());
+            }
+        }
+    }
+}
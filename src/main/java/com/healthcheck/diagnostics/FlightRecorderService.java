@@ -0,0 +1,127 @@
+package com.healthcheck.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts and stops one bounded JFR recording at a time.
+ *
+ * Every recording has a destination file in the configured directory, a
+ * maximum duration and a maximum size, so a forgotten recording stops and
+ * dumps itself instead of running forever. Only the newest max-files
+ * recordings are kept on disk.
+ */
+@Slf4j
+@Component
+public class FlightRecorderService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final long maxDurationSeconds;
+    private final long maxSizeBytes;
+    private final String settings;
+    private final int maxFiles;
+
+    private Recording recording;
+    private Path file;
+
+    public FlightRecorderService(
+            @Value("${diagnostics.jfr.directory:/opt/webapp/logs}") String directory,
+            @Value("${diagnostics.jfr.max-duration-seconds:300}") long maxDurationSeconds,
+            @Value("${diagnostics.jfr.max-size-mb:100}") long maxSizeMb,
+            @Value("${diagnostics.jfr.settings:profile}") String settings,
+            @Value("${diagnostics.jfr.max-files:5}") int maxFiles) {
+        this.directory = Path.of(directory);
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.settings = settings;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    /**
+     * @param durationSeconds requested length, capped at max-duration-seconds; null for the maximum
+     * @throws IllegalStateException if a recording is already running
+     */
+    public synchronized Map<String, Object> start(Long durationSeconds) throws IOException, ParseException {
+        if (isRunning()) {
+            throw new IllegalStateException("A recording is already running: " + file);
+        }
+        long seconds = durationSeconds == null || durationSeconds <= 0
+                ? maxDurationSeconds : Math.min(durationSeconds, maxDurationSeconds);
+
+        Files.createDirectories(directory);
+        DiagnosticFiles.prune(directory, "recording-*.jfr", maxFiles - 1);
+        Path destination = directory.resolve("recording-" + FILE_TIMESTAMP.format(Instant.now()) + ".jfr");
+
+        Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+        newRecording.setName("healthcheck-api");
+        newRecording.setToDisk(true);
+        newRecording.setMaxSize(maxSizeBytes);
+        newRecording.setDuration(Duration.ofSeconds(seconds));
+        newRecording.setDestination(destination);
+        newRecording.start();
+
+        // The previous recording has already been dumped to its file; release its buffers
+        if (recording != null) {
+            recording.close();
+        }
+        recording = newRecording;
+        file = destination;
+        log.info("JFR recording started ({}s, settings {}), writing to {}", seconds, settings, destination);
+        return status();
+    }
+
+    /**
+     * Stop the running recording (if any) and write it to its file.
+     */
+    public synchronized Map<String, Object> stop() {
+        if (isRunning()) {
+            recording.stop();
+            log.info("JFR recording stopped, written to {}", file);
+        }
+        return status();
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        if (recording != null) {
+            status.put("state", recording.getState().name());
+            status.put("started_at", recording.getStartTime());
+            status.put("duration_seconds", recording.getDuration().toSeconds());
+            status.put("file", file.toAbsolutePath().toString());
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        stop();
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+}
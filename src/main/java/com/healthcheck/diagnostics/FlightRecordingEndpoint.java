@@ -0,0 +1,49 @@
+package com.healthcheck.diagnostics;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/jfr - GET status, POST {"durationSeconds": n} to start a
+ * recording (409 if one is running), DELETE to stop it early. The .jfr file lands in the log directory.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    private final FlightRecorderService flightRecorder;
+
+    public FlightRecordingEndpoint(FlightRecorderService flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return flightRecorder.status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds)
+            throws IOException, ParseException {
+        try {
+            return new WebEndpointResponse<>(flightRecorder.start(durationSeconds));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(flightRecorder.status(), HttpStatus.CONFLICT.value());
+        }
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        return flightRecorder.stop();
+    }
+}
@@ -0,0 +1,28 @@
+package com.healthcheck.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request, from the outermost filter until the response is complete.
+ */
+@Name("com.healthcheck.HttpRequest")
+@Label("HTTP Request")
+@Category({"Health Check API", "HTTP"})
+@Description("Request handled by the API, tagged with its route template")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Route")
+    public String route;
+
+    @Label("Status")
+    public int status;
+}
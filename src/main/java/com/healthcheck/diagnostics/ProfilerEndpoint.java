@@ -0,0 +1,41 @@
+package com.healthcheck.diagnostics;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/profiler - POST {"durationSeconds": n, "rateHz": r} to sample
+ * request threads in the background (409 if a session is running), GET for
+ * progress and the path of the collapsed-stack file.
+ */
+@Component
+@Endpoint(id = "profiler")
+public class ProfilerEndpoint {
+
+    private final SamplingProfiler profiler;
+
+    public ProfilerEndpoint(SamplingProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return profiler.status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds, @Nullable Integer rateHz) {
+        try {
+            return new WebEndpointResponse<>(profiler.start(durationSeconds, rateHz));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(profiler.status(), HttpStatus.CONFLICT.value());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.healthcheck.diagnostics;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.healthcheck.metrics.RouteResolver;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Registers the request thread and its route with the {@link SamplingProfiler}
+ * while a profiling session runs. Sits ahead of Spring Security so time spent
+ * authenticating is attributed to the route being called. Costs one volatile
+ * read per request when no session is running.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 15)
+public class ProfilerFilter extends OncePerRequestFilter {
+
+    private final SamplingProfiler profiler;
+    private final RouteResolver routeResolver;
+
+    public ProfilerFilter(SamplingProfiler profiler, RouteResolver routeResolver) {
+        this.profiler = profiler;
+        this.routeResolver = routeResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!profiler.isActive()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        profiler.enter(thread, request.getMethod() + " " + routeResolver.resolveBeforeDispatch(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            profiler.exit(thread);
+        }
+    }
+}
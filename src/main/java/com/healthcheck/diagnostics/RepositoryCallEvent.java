@@ -0,0 +1,28 @@
+package com.healthcheck.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call into a Spring Data repository, including the SQL it ran.
+ */
+@Name("com.healthcheck.RepositoryCall")
+@Label("Repository Call")
+@Category({"Health Check API", "Database"})
+@Description("Spring Data repository method invocation")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
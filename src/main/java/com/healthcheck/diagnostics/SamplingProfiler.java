@@ -0,0 +1,285 @@
+package com.healthcheck.diagnostics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On-demand wall-clock sampler for request threads.
+ *
+ * While a session runs, {@link ProfilerFilter} registers each request thread
+ * with its route; a dedicated thread samples their stacks at the requested rate
+ * and folds them into collapsed stacks ({@code route;frame;frame count}) ready
+ * for flamegraph.pl or speedscope. Threads whose names start with one of the
+ * extra prefixes (the BCrypt pool by default) are sampled too while RUNNABLE.
+ *
+ * Only one session runs at a time, its length and rate are capped, and the
+ * number of distinct stacks is bounded; samples beyond that are counted under
+ * {@code route;[truncated]}. Only the newest max-files profiles are kept on disk.
+ */
+@Slf4j
+@Component
+public class SamplingProfiler {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final long THREAD_SCAN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Path directory;
+    private final long maxDurationSeconds;
+    private final int maxRateHz;
+    private final int maxDepth;
+    private final int maxStacks;
+    private final List<String> extraThreadPrefixes;
+    private final int maxFiles;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Map<Thread, String> activeRequests = new ConcurrentHashMap<>();
+    private final AtomicReference<Session> current = new AtomicReference<>();
+    private volatile Session last;
+
+    public SamplingProfiler(
+            @Value("${diagnostics.profiler.directory:/opt/webapp/logs}") String directory,
+            @Value("${diagnostics.profiler.max-duration-seconds:60}") long maxDurationSeconds,
+            @Value("${diagnostics.profiler.max-rate-hz:200}") int maxRateHz,
+            @Value("${diagnostics.profiler.max-depth:128}") int maxDepth,
+            @Value("${diagnostics.profiler.max-stacks:20000}") int maxStacks,
+            @Value("${diagnostics.profiler.extra-thread-prefixes:password-hash-}") List<String> extraThreadPrefixes,
+            @Value("${diagnostics.profiler.max-files:5}") int maxFiles) {
+        this.directory = Path.of(directory);
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.maxRateHz = maxRateHz;
+        this.maxDepth = maxDepth;
+        this.maxStacks = maxStacks;
+        this.extraThreadPrefixes = extraThreadPrefixes.stream().filter(p -> !p.isBlank()).toList();
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    public boolean isActive() {
+        return current.get() != null;
+    }
+
+    void enter(Thread thread, String route) {
+        activeRequests.put(thread, route);
+    }
+
+    void exit(Thread thread) {
+        activeRequests.remove(thread);
+    }
+
+    /**
+     * Start sampling in the background.
+     *
+     * @param durationSeconds session length, capped at max-duration-seconds; null for 10s
+     * @param rateHz          samples per second, capped at max-rate-hz; null for 50
+     * @throws IllegalStateException if a session is already running
+     */
+    public Map<String, Object> start(Long durationSeconds, Integer rateHz) {
+        long seconds = Math.max(1, Math.min(durationSeconds != null ? durationSeconds : 10, maxDurationSeconds));
+        int hz = Math.max(1, Math.min(rateHz != null ? rateHz : 50, maxRateHz));
+        Path file = directory.resolve("profile-" + FILE_TIMESTAMP.format(Instant.now()) + ".collapsed");
+
+        Session session = new Session(seconds, hz, file);
+        if (!current.compareAndSet(null, session)) {
+            throw new IllegalStateException("A profiling session is already running");
+        }
+        activeRequests.clear();
+
+        Thread sampler = new Thread(() -> run(session), "profiler-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+        log.info("Profiling started for {}s at {} Hz, writing to {}", seconds, hz, file);
+        return status();
+    }
+
+    public Map<String, Object> status() {
+        Session session = current.get();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", session != null);
+        if (session == null) {
+            session = last;
+        }
+        if (session != null) {
+            status.put("started_at", session.startedAt);
+            status.put("duration_seconds", session.durationSeconds);
+            status.put("rate_hz", session.rateHz);
+            status.put("samples", session.samples);
+            status.put("truncated", session.truncated);
+            status.put("file", session.file.toAbsolutePath().toString());
+            if (session.error != null) {
+                status.put("error", session.error);
+            }
+        }
+        return status;
+    }
+
+    private void run(Session session) {
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / session.rateHz;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(session.durationSeconds);
+        List<Thread> extraThreads = List.of();
+        long nextThreadScan = 0;
+        try {
+            long next = System.nanoTime();
+            while (next < deadline) {
+                if (next >= nextThreadScan) {
+                    extraThreads = findExtraThreads();
+                    nextThreadScan = next + THREAD_SCAN_INTERVAL_NANOS;
+                }
+                sample(session, extraThreads);
+                next += periodNanos;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+            write(session);
+            log.info("Profiling finished: {} samples written to {}", session.samples, session.file);
+        } catch (Exception e) {
+            session.error = e.getMessage();
+            log.warn("Profiling session failed: {}", e.getMessage());
+        } finally {
+            activeRequests.clear();
+            last = session;
+            current.set(null);
+        }
+    }
+
+    private void sample(Session session, List<Thread> extraThreads) {
+        List<String> routes = new ArrayList<>(activeRequests.size() + extraThreads.size());
+        List<Long> ids = new ArrayList<>(activeRequests.size() + extraThreads.size());
+        activeRequests.forEach((thread, route) -> {
+            routes.add(route);
+            ids.add(thread.getId());
+        });
+        int requestThreads = ids.size();
+        for (Thread thread : extraThreads) {
+            routes.add(extraLabel(thread.getName()));
+            ids.add(thread.getId());
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // One call, one safepoint for all threads
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(ids.stream().mapToLong(Long::longValue).toArray(), maxDepth);
+        for (int i = 0; i < infos.length; i++) {
+            ThreadInfo info = infos[i];
+            if (info == null || info.getStackTrace().length == 0) {
+                continue;
+            }
+            boolean runnable = info.getThreadState() == Thread.State.RUNNABLE;
+            if (i >= requestThreads && !runnable) {
+                continue;
+            }
+            session.add(collapse(routes.get(i), info, runnable), maxStacks);
+        }
+    }
+
+    // route;outermost frame;...;innermost frame[;STATE]
+    private static String collapse(String route, ThreadInfo info, boolean runnable) {
+        StackTraceElement[] frames = info.getStackTrace();
+        StringBuilder stack = new StringBuilder(route.length() + frames.length * 48);
+        stack.append(route);
+        for (int f = frames.length - 1; f >= 0; f--) {
+            stack.append(';').append(frames[f].getClassName()).append('.').append(frames[f].getMethodName());
+        }
+        if (!runnable) {
+            stack.append(";[").append(info.getThreadState()).append(']');
+        }
+        return stack.toString();
+    }
+
+    private List<Thread> findExtraThreads() {
+        if (extraThreadPrefixes.isEmpty()) {
+            return List.of();
+        }
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] threads = new Thread[root.activeCount() * 2 + 16];
+        int count = root.enumerate(threads, true);
+        List<Thread> matches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (extraLabel(threads[i].getName()) != null) {
+                matches.add(threads[i]);
+            }
+        }
+        return matches;
+    }
+
+    private String extraLabel(String threadName) {
+        for (String prefix : extraThreadPrefixes) {
+            if (threadName.startsWith(prefix)) {
+                return "[" + prefix + "*]";
+            }
+        }
+        return null;
+    }
+
+    private void write(Session session) throws IOException {
+        Files.createDirectories(session.file.getParent());
+        DiagnosticFiles.prune(session.file.getParent(), "profile-*.collapsed", maxFiles - 1);
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(session.stacks.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        try (Writer writer = Files.newBufferedWriter(session.file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, long[]> entry : entries) {
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(Long.toString(entry.getValue()[0]));
+                writer.write('\n');
+            }
+        }
+    }
+
+    // Written only by the sampler thread; counters are volatile for status()
+    private static class Session {
+
+        final Instant startedAt = Instant.now();
+        final long durationSeconds;
+        final int rateHz;
+        final Path file;
+        final Map<String, long[]> stacks = new HashMap<>();
+        volatile long samples;
+        volatile long truncated;
+        volatile String error;
+
+        Session(long durationSeconds, int rateHz, Path file) {
+            this.durationSeconds = durationSeconds;
+            this.rateHz = rateHz;
+            this.file = file;
+        }
+
+        void add(String stack, int maxStacks) {
+            long[] count = stacks.get(stack);
+            if (count == null) {
+                if (stacks.size() >= maxStacks) {
+                    truncated++;
+                    stack = stack.substring(0, stack.indexOf(';')) + ";[truncated]";
+                }
+                count = stacks.computeIfAbsent(stack, key -> new long[1]);
+            }
+            count[0]++;
+            samples++;
+        }
+    }
+}
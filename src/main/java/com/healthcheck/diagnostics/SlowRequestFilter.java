@@ -0,0 +1,91 @@
+package com.healthcheck.diagnostics;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.healthcheck.metrics.RouteResolver;
+import com.healthcheck.metrics.ServerTiming;
+import com.healthcheck.security.AuthenticatedUser;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Collects phase timings and SQL for every request and hands the request to
+ * the {@link SlowRequestRecorder} only if it crossed the threshold. Every
+ * request pays for a {@link ServerTiming} (unless an outer filter already
+ * opened one), an empty {@link SqlCapture} and two clock reads; the capture's
+ * statement buffers are allocated only once SQL runs, and each statement also
+ * goes through the {@link TimedDataSource} proxies.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 12)
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final SlowRequestRecorder recorder;
+    private final RouteResolver routeResolver;
+
+    public SlowRequestFilter(SlowRequestRecorder recorder, RouteResolver routeResolver) {
+        this.recorder = recorder;
+        this.routeResolver = routeResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !recorder.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        ServerTiming owned = ServerTiming.open();
+        ServerTiming timing = ServerTiming.current();
+        SqlCapture capture = recorder.newCapture();
+        SqlCapture.bind(capture);
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            chain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            SqlCapture.unbind();
+            ServerTiming.close(owned);
+            long finishedAt = System.nanoTime();
+            if (recorder.isSlow(finishedAt - startedAt)) {
+                recorder.record(request.getMethod(), routeResolver.resolve(request, status), status,
+                        capture, timing.phasesMillis(finishedAt));
+            }
+        }
+    }
+
+    /**
+     * Notes the authenticated user id once Spring Security has run; the
+     * security context is cleared again before the outer filter finishes.
+     */
+    @Component
+    @Order(SecurityProperties.DEFAULT_FILTER_ORDER + 5)
+    static class PrincipalMarker extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            SqlCapture capture = SqlCapture.current();
+            if (capture != null) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                    capture.setPrincipal("user:" + user.getId());
+                }
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.healthcheck.diagnostics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import net.logstash.logback.argument.StructuredArguments;
+
+/**
+ * Keeps the last N slow requests in a ring buffer and logs each one as a
+ * structured record (route, principal, phase timings, executed SQL).
+ */
+@Slf4j
+@Component
+public class SlowRequestRecorder {
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int maxStatements;
+    private final int maxSqlLength;
+
+    private final AtomicReferenceArray<Map<String, Object>> ring;
+    private final AtomicLong recorded = new AtomicLong();
+
+    public SlowRequestRecorder(
+            @Value("${diagnostics.slow-requests.enabled:true}") boolean enabled,
+            @Value("${diagnostics.slow-requests.threshold-ms:1000}") long thresholdMs,
+            @Value("${diagnostics.slow-requests.capacity:100}") int capacity,
+            @Value("${diagnostics.slow-requests.max-statements:50}") int maxStatements,
+            @Value("${diagnostics.slow-requests.max-sql-length:2000}") int maxSqlLength) {
+        this.enabled = enabled;
+        this.thresholdNanos = thresholdMs * 1_000_000;
+        this.maxStatements = maxStatements;
+        this.maxSqlLength = maxSqlLength;
+        this.ring = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    SqlCapture newCapture() {
+        return new SqlCapture(maxStatements);
+    }
+
+    boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    void record(String method, String route, int status, SqlCapture capture, Map<String, Double> phases) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", Instant.now().toString());
+        entry.put("method", method);
+        entry.put("route", route);
+        entry.put("status", status);
+        entry.put("principal", capture.getPrincipal());
+        entry.put("phases_ms", phases);
+        entry.put("sql", capture.statements(maxSqlLength));
+        entry.put("sql_dropped", capture.getDropped());
+
+        long sequence = recorded.getAndIncrement();
+        ring.set((int) (sequence % ring.length()), entry);
+        log.warn("Slow request {} {} took {} ms", method, route, phases.get("total"),
+                 StructuredArguments.keyValue("slow_request", entry));
+    }
+
+    /**
+     * @return the retained slow requests, newest first
+     */
+    public List<Map<String, Object>> recent() {
+        long end = recorded.get();
+        long start = Math.max(0, end - ring.length());
+        List<Map<String, Object>> entries = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            Map<String, Object> entry = ring.get((int) (sequence % ring.length()));
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    public long getThresholdMs() {
+        return thresholdNanos / 1_000_000;
+    }
+}
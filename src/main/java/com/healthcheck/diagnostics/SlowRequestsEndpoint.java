@@ -0,0 +1,32 @@
+package com.healthcheck.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/slowrequests - the last N requests over the threshold, newest first.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestRecorder recorder;
+
+    public SlowRequestsEndpoint(SlowRequestRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowRequests() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", recorder.isEnabled());
+        body.put("threshold_ms", recorder.getThresholdMs());
+        body.put("recorded", recorder.getRecordedCount());
+        body.put("requests", recorder.recent());
+        return body;
+    }
+}
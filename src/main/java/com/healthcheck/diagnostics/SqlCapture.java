@@ -0,0 +1,80 @@
+package com.healthcheck.diagnostics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements executed on the current request thread, with their timings.
+ *
+ * Bound by {@link SlowRequestFilter} for the length of a request. The
+ * buffers are allocated on the first statement, so requests that run no SQL
+ * carry only this object. Recording keeps a reference to the SQL string and a
+ * duration; the statements are only formatted when the request is slow.
+ */
+public final class SqlCapture {
+
+    private static final ThreadLocal<SqlCapture> CURRENT = new ThreadLocal<>();
+
+    private final int maxStatements;
+    private String[] statements;
+    private long[] durations;
+    private int count;
+    private int dropped;
+    private String principal;
+
+    SqlCapture(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public static SqlCapture current() {
+        return CURRENT.get();
+    }
+
+    static void bind(SqlCapture capture) {
+        CURRENT.set(capture);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public void record(String sql, long nanos) {
+        if (count < maxStatements) {
+            if (statements == null) {
+                statements = new String[maxStatements];
+                durations = new long[maxStatements];
+            }
+            statements[count] = sql;
+            durations[count] = nanos;
+            count++;
+        } else {
+            dropped++;
+        }
+    }
+
+    void setPrincipal(String principal) {
+        this.principal = principal;
+    }
+
+    String getPrincipal() {
+        return principal;
+    }
+
+    int getDropped() {
+        return dropped;
+    }
+
+    List<Map<String, Object>> statements(int maxSqlLength) {
+        List<Map<String, Object>> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String sql = statements[i] == null ? "?" : statements[i];
+            Map<String, Object> statement = new LinkedHashMap<>();
+            statement.put("sql", sql.length() > maxSqlLength ? sql.substring(0, maxSqlLength) + "..." : sql);
+            statement.put("duration_ms", Math.round(durations[i] / 10_000.0) / 100.0);
+            result.add(statement);
+        }
+        return result;
+    }
+}
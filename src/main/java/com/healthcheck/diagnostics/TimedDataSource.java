@@ -0,0 +1,138 @@
+package com.healthcheck.diagnostics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.healthcheck.metrics.ServerTiming;
+
+/**
+ * DataSource wrapper that times every statement execution and reports it to
+ * the current request's {@link SqlCapture} (when SQL capture is on) and to
+ * the {@code db} phase of its {@link ServerTiming}. Timing at the statement
+ * keeps password hashing and other work around repository calls out of
+ * {@code db}.
+ *
+ * Connections and statements are wrapped in JDK proxies; everything except
+ * the execute methods is passed straight through, and unwrap/isWrapperFor
+ * still reach the pool (e.g. HikariDataSource for readiness and metrics).
+ */
+public class TimedDataSource extends DelegatingDataSource implements Closeable {
+
+    private final boolean captureSql;
+
+    public TimedDataSource(DataSource target, boolean captureSql) {
+        super(target);
+        this.captureSql = captureSql;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    // Lets the context close the pool on shutdown as it would without the wrapper
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection, captureSql));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final boolean captureSql;
+
+        ConnectionHandler(Connection target, boolean captureSql) {
+            this.target = target;
+            this.captureSql = captureSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TimedDataSource.invoke(target, method, args);
+            Class<?> type;
+            if (result instanceof CallableStatement) {
+                type = CallableStatement.class;
+            } else if (result instanceof PreparedStatement) {
+                type = PreparedStatement.class;
+            } else if (result instanceof Statement) {
+                type = Statement.class;
+            } else {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            return Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(),
+                    new Class<?>[] {type}, new StatementHandler((Statement) result, sql, captureSql));
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final boolean captureSql;
+
+        StatementHandler(Statement target, String preparedSql, boolean captureSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.captureSql = captureSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return TimedDataSource.invoke(target, method, args);
+            }
+            SqlCapture capture = captureSql ? SqlCapture.current() : null;
+            ServerTiming timing = ServerTiming.current();
+            if (capture == null && timing == null) {
+                return TimedDataSource.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return TimedDataSource.invoke(target, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (timing != null) {
+                    timing.add(ServerTiming.DB, nanos);
+                }
+                if (capture != null) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                    capture.record(method.getName().contains("Batch") ? sql + " [batch]" : sql, nanos);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.healthcheck.diagnostics;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the application DataSource in a {@link TimedDataSource} so slow-request
+ * records can list the SQL each request ran and the Server-Timing {@code db}
+ * phase covers statement execution only.
+ */
+@Component
+@ConditionalOnExpression("${diagnostics.slow-requests.capture-sql:true} or ${metrics.server-timing.enabled:false}")
+public class TimedDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final boolean captureSql;
+
+    public TimedDataSourcePostProcessor(@Value("${diagnostics.slow-requests.capture-sql:true}") boolean captureSql) {
+        this.captureSql = captureSql;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)) {
+            return new TimedDataSource(dataSource, captureSql);
+        }
+        return bean;
+    }
+}
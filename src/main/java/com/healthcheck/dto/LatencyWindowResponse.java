@@ -0,0 +1,64 @@
+package com.healthcheck.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Probe DB latency percentiles over one history window. Percentiles are null
+ * when no probe ran in the window.
+ */
+public class LatencyWindowResponse {
+
+    @JsonProperty("window_minutes")
+    private int windowMinutes;
+
+    @JsonProperty("count")
+    private long count;
+
+    @JsonProperty("p50_micros")
+    private Long p50Micros;
+
+    @JsonProperty("p95_micros")
+    private Long p95Micros;
+
+    @JsonProperty("p99_micros")
+    private Long p99Micros;
+
+    @JsonProperty("max_micros")
+    private Long maxMicros;
+
+    public LatencyWindowResponse() {}
+
+    public LatencyWindowResponse(int windowMinutes, long count, Long p50Micros, Long p95Micros,
+                                 Long p99Micros, Long maxMicros) {
+        this.windowMinutes = windowMinutes;
+        this.count = count;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Long getP50Micros() {
+        return p50Micros;
+    }
+
+    public Long getP95Micros() {
+        return p95Micros;
+    }
+
+    public Long getP99Micros() {
+        return p99Micros;
+    }
+
+    public Long getMaxMicros() {
+        return maxMicros;
+    }
+}
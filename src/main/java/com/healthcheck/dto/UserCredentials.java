@@ -0,0 +1,8 @@
+package com.healthcheck.dto;
+
+/**
+ * Read-only projection of the columns authentication needs. Loaded with a JPQL
+ * constructor expression, so it is never a managed entity.
+ */
+public record UserCredentials(Long id, String email, String password, boolean verified) {
+}
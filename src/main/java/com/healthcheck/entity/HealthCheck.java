@@ -24,6 +24,10 @@ public class HealthCheck {
     @Column(name = "check_datetime", nullable = false)
     private Instant checkDatetime;
 
+    // Duration of the SELECT 1 probe; null for rows written before it was recorded
+    @Column(name = "latency_micros")
+    private Long latencyMicros;
+
     public HealthCheck() {
     }
 
@@ -31,6 +35,11 @@ public class HealthCheck {
         this.checkDatetime = checkDatetime;
     }
 
+    public HealthCheck(Instant checkDatetime, Long latencyMicros) {
+        this.checkDatetime = checkDatetime;
+        this.latencyMicros = latencyMicros;
+    }
+
     public Long getCheckId() {
         return checkId;
     }
@@ -47,11 +56,20 @@ public class HealthCheck {
         this.checkDatetime = checkDatetime;
     }
 
+    public Long getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    public void setLatencyMicros(Long latencyMicros) {
+        this.latencyMicros = latencyMicros;
+    }
+
     @Override
     public String toString() {
         return "HealthCheck{" +
                 "checkId=" + checkId +
                 ", checkDatetime=" + checkDatetime +
+                ", latencyMicros=" + latencyMicros +
                 '}';
     }
 
@@ -0,0 +1,90 @@
+package com.healthcheck.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Per-minute aggregate of health_checks rows that have been rolled up and purged.
+ * The latency sum and sample count are stored instead of the average so that
+ * rows landing in an existing bucket can be merged exactly.
+ */
+@Entity
+@Table(name = "health_check_rollups")
+public class HealthCheckRollup {
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "check_count", nullable = false)
+    private long checkCount;
+
+    @Column(name = "latency_samples", nullable = false)
+    private long latencySamples;
+
+    @Column(name = "latency_sum_micros", nullable = false)
+    private long latencySumMicros;
+
+    @Column(name = "min_latency_micros")
+    private Long minLatencyMicros;
+
+    @Column(name = "max_latency_micros")
+    private Long maxLatencyMicros;
+
+    public HealthCheckRollup() {
+    }
+
+    public HealthCheckRollup(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Fold one raw health check into this bucket.
+     */
+    public void add(HealthCheck healthCheck) {
+        checkCount++;
+        Long latency = healthCheck.getLatencyMicros();
+        if (latency == null) {
+            return;
+        }
+        latencySamples++;
+        latencySumMicros += latency;
+        minLatencyMicros = minLatencyMicros == null ? latency : Math.min(minLatencyMicros, latency);
+        maxLatencyMicros = maxLatencyMicros == null ? latency : Math.max(maxLatencyMicros, latency);
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getCheckCount() {
+        return checkCount;
+    }
+
+    public Long getMinLatencyMicros() {
+        return minLatencyMicros;
+    }
+
+    public Long getMaxLatencyMicros() {
+        return maxLatencyMicros;
+    }
+
+    public Double getAvgLatencyMicros() {
+        return latencySamples == 0 ? null : (double) latencySumMicros / latencySamples;
+    }
+
+    @Override
+    public String toString() {
+        return "HealthCheckRollup{" +
+                "bucketStart=" + bucketStart +
+                ", checkCount=" + checkCount +
+                ", minLatencyMicros=" + minLatencyMicros +
+                ", avgLatencyMicros=" + getAvgLatencyMicros() +
+                ", maxLatencyMicros=" + maxLatencyMicros +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package com.healthcheck.exception;
+
+/**
+ * Thrown when the password hashing pool and its queue are full. Mapped to
+ * 503 Service Unavailable with a Retry-After header.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        super("Password hashing capacity exceeded, retry after " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
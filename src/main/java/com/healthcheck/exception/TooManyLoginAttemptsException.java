@@ -0,0 +1,19 @@
+package com.healthcheck.exception;
+
+/**
+ * Thrown when an email or client IP has too many recent failed logins. Mapped to
+ * 429 Too Many Requests with a Retry-After header.
+ */
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
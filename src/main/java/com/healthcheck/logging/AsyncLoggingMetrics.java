@@ -0,0 +1,51 @@
+package com.healthcheck.logging;
+
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Queue depth, dropped and blocked counts for each {@link BoundedAsyncAppender}.
+ *
+ * The appenders are created by logback, not Spring, so meters look the
+ * appender up by name on every read; that way they survive a logging reconfiguration.
+ */
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (BoundedAsyncAppender appender : BoundedAsyncAppender.instances()) {
+            String name = appender.getName();
+            Gauge.builder("logging.async.queue.depth", name, n -> read(n, BoundedAsyncAppender::getQueueDepth))
+                    .tag("appender", name)
+                    .description("Events waiting for the async logging worker")
+                    .register(registry);
+            Gauge.builder("logging.async.queue.capacity", name, n -> read(n, BoundedAsyncAppender::getQueueSize))
+                    .tag("appender", name)
+                    .register(registry);
+            FunctionCounter.builder("logging.async.dropped", name, n -> read(n, BoundedAsyncAppender::getDroppedCount))
+                    .tag("appender", name)
+                    .description("DEBUG/INFO events dropped because the queue was (nearly) full")
+                    .register(registry);
+            FunctionCounter.builder("logging.async.blocked", name, n -> read(n, BoundedAsyncAppender::getBlockedCount))
+                    .tag("appender", name)
+                    .description("WARN/ERROR events that waited for queue space")
+                    .register(registry);
+        }
+    }
+
+    private static double read(String name, ToDoubleFunction<BoundedAsyncAppender> value) {
+        for (BoundedAsyncAppender appender : BoundedAsyncAppender.instances()) {
+            if (appender.getName().equals(name)) {
+                return value.applyAsDouble(appender);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.healthcheck.logging;
+
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Suppressed-event count and tracked templates for the {@link SamplingTurboFilter}.
+ *
+ * Like {@link AsyncLoggingMetrics}, the filter belongs to logback, so it is
+ * looked up on every read rather than captured at bind time.
+ */
+@Component
+public class LogSamplingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.sampling.suppressed", this,
+                        m -> read(SamplingTurboFilter::getSuppressedCount))
+                .description("DEBUG/INFO events denied because their template was over budget")
+                .register(registry);
+        Gauge.builder("logging.sampling.templates", this, m -> read(SamplingTurboFilter::getTemplateCount))
+                .description("Message templates currently rate-limited")
+                .register(registry);
+    }
+
+    private static double read(ToDoubleFunction<SamplingTurboFilter> value) {
+        double total = 0;
+        for (SamplingTurboFilter filter : SamplingTurboFilter.instances()) {
+            total += value.applyAsDouble(filter);
+        }
+        return total;
+    }
+}
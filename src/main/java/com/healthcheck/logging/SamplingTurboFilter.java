@@ -0,0 +1,157 @@
+package com.healthcheck.logging;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Rate-limits DEBUG/INFO events per (logger, message template) so that the
+ * per-request lines ("GET /v1/product/{} - Retrieving product", every
+ * /healthz probe, ...) do not cost CPU and disk in proportion to traffic.
+ *
+ * Each template may log {@code perSecondBudget} events per second; beyond
+ * that only every {@code sampleOneIn}-th event passes (0 = none). Events
+ * are denied before a LoggingEvent is built, so suppression is nearly free.
+ * WARN and ERROR always pass. Templates are keyed by the unformatted message,
+ * so messages built by concatenation each get their own entry; once
+ * {@code maxTemplates} are tracked, new ones pass unsampled.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final List<SamplingTurboFilter> INSTANCES = new CopyOnWriteArrayList<>();
+
+    private final ConcurrentMap<TemplateKey, Template> templates = new ConcurrentHashMap<>();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private boolean enabled = true;
+    private int perSecondBudget = 10;
+    private int sampleOneIn = 100;
+    private int maxTemplates = 2000;
+
+    /**
+     * @return started instances, for metrics
+     */
+    public static List<SamplingTurboFilter> instances() {
+        return INSTANCES;
+    }
+
+    @Override
+    public void start() {
+        if (perSecondBudget <= 0 && sampleOneIn <= 0) {
+            addError("perSecondBudget and sampleOneIn are both 0; this would suppress all INFO logging");
+            return;
+        }
+        INSTANCES.add(this);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        INSTANCES.remove(this);
+        templates.clear();
+        super.stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks
+        if (!enabled || !isStarted() || format == null || level.toInt() > Level.INFO_INT) {
+            return FilterReply.NEUTRAL;
+        }
+        // Disabled levels are discarded later anyway; don't let them use up the budget
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        TemplateKey key = new TemplateKey(logger.getName(), format);
+        Template template = templates.get(key);
+        if (template == null) {
+            if (templates.size() >= maxTemplates) {
+                return FilterReply.NEUTRAL;
+            }
+            template = templates.computeIfAbsent(key, k -> new Template());
+        }
+
+        if (template.admit(System.currentTimeMillis() / 1000)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    public int getTemplateCount() {
+        return templates.size();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPerSecondBudget() {
+        return perSecondBudget;
+    }
+
+    public void setPerSecondBudget(int perSecondBudget) {
+        this.perSecondBudget = perSecondBudget;
+    }
+
+    public int getSampleOneIn() {
+        return sampleOneIn;
+    }
+
+    public void setSampleOneIn(int sampleOneIn) {
+        this.sampleOneIn = sampleOneIn;
+    }
+
+    public int getMaxTemplates() {
+        return maxTemplates;
+    }
+
+    public void setMaxTemplates(int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+    }
+
+    private record TemplateKey(String logger, String format) {
+    }
+
+    private final class Template {
+
+        private volatile long window;
+        private final AtomicInteger admittedInWindow = new AtomicInteger();
+        private final AtomicLong overBudget = new AtomicLong();
+
+        boolean admit(long second) {
+            if (window != second) {
+                synchronized (this) {
+                    if (window != second) {
+                        admittedInWindow.set(0);
+                        window = second;
+                    }
+                }
+            }
+            // A racing reset can let a few extra events through at a window boundary; that is fine
+            if (perSecondBudget > 0 && admittedInWindow.incrementAndGet() <= perSecondBudget) {
+                return true;
+            }
+            return sampleOneIn > 0 && overBudget.incrementAndGet() % sampleOneIn == 0;
+        }
+    }
+}
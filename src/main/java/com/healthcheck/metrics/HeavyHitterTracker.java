@@ -0,0 +1,95 @@
+package com.healthcheck.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks which users and products generate the most requests and bytes.
+ *
+ * Each dimension is a {@link TopKSketch}, so memory stays fixed however many
+ * distinct users or products are seen, and per-request cost is a handful of
+ * atomic adds. Counts are halved every decay interval so the lists reflect
+ * recent load rather than all-time totals.
+ */
+@Slf4j
+@Component
+public class HeavyHitterTracker {
+
+    private final boolean enabled;
+
+    private final TopKSketch userRequests;
+    private final TopKSketch userBytes;
+    private final TopKSketch productRequests;
+    private final TopKSketch productBytes;
+
+    public HeavyHitterTracker(
+            @Value("${metrics.heavy-hitters.enabled:true}") boolean enabled,
+            @Value("${metrics.heavy-hitters.top-k:20}") int topK,
+            @Value("${metrics.heavy-hitters.width:2048}") int width,
+            @Value("${metrics.heavy-hitters.depth:4}") int depth) {
+        this.enabled = enabled;
+        this.userRequests = new TopKSketch(topK, width, depth);
+        this.userBytes = new TopKSketch(topK, width, depth);
+        this.productRequests = new TopKSketch(topK, width, depth);
+        this.productBytes = new TopKSketch(topK, width, depth);
+        if (enabled) {
+            log.info("Heavy hitter tracking enabled (top {}, sketch {}x{})", topK, depth, width);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param userId    authenticated user id, or null for anonymous requests
+     * @param productId product path variable, or null if the route has none
+     * @param bytes     request plus response body bytes
+     */
+    public void record(String userId, String productId, long bytes) {
+        if (!enabled) {
+            return;
+        }
+        if (userId != null) {
+            userRequests.add(userId, 1);
+            userBytes.add(userId, bytes);
+        }
+        if (productId != null) {
+            productRequests.add(productId, 1);
+            productBytes.add(productId, bytes);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.heavy-hitters.decay-interval-ms:60000}",
+               initialDelayString = "${metrics.heavy-hitters.decay-interval-ms:60000}")
+    public void decay() {
+        if (!enabled) {
+            return;
+        }
+        userRequests.decay();
+        userBytes.decay();
+        productRequests.decay();
+        productBytes.decay();
+    }
+
+    public Map<String, Map<String, List<TopKSketch.Entry>>> snapshot() {
+        Map<String, Map<String, List<TopKSketch.Entry>>> snapshot = new LinkedHashMap<>();
+        snapshot.put("users", dimension(userRequests, userBytes));
+        snapshot.put("products", dimension(productRequests, productBytes));
+        return snapshot;
+    }
+
+    private static Map<String, List<TopKSketch.Entry>> dimension(TopKSketch requests, TopKSketch bytes) {
+        Map<String, List<TopKSketch.Entry>> dimension = new LinkedHashMap<>();
+        dimension.put("requests", requests.top());
+        dimension.put("bytes", bytes.top());
+        return dimension;
+    }
+}
@@ -0,0 +1,31 @@
+package com.healthcheck.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/heavyhitters - current top users (by id) and products by
+ * request count and bytes. Estimates may overcount slightly, never undercount.
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+public class HeavyHittersEndpoint {
+
+    private final HeavyHitterTracker tracker;
+
+    public HeavyHittersEndpoint(HeavyHitterTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public Map<String, Object> heavyHitters() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", tracker.isEnabled());
+        body.putAll(tracker.snapshot());
+        return body;
+    }
+}
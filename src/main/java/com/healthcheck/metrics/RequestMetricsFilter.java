@@ -0,0 +1,74 @@
+package com.healthcheck.metrics;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.healthcheck.config.MetricsConfig;
+import com.healthcheck.diagnostics.HttpRequestEvent;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records api.calls and api.response.time for every request, tagged with the
+ * route template (e.g. /v1/product/{productId}), HTTP method and final status.
+ *
+ * Runs ahead of Spring Security so rejected requests (401/429/503) are counted
+ * too; {@link RouteResolver} looks their route up after the fact. The same
+ * route and status go into an {@link HttpRequestEvent} for JFR recordings.
+ * Methods outside the standard verbs are tagged {@code OTHER}, so clients
+ * cannot create a meter per invented method.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String OTHER_METHOD = "OTHER";
+
+    private static final Set<String> STANDARD_METHODS =
+            Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+
+    private final MetricsConfig metricsConfig;
+    private final RouteResolver routeResolver;
+
+    public RequestMetricsFilter(MetricsConfig metricsConfig, RouteResolver routeResolver) {
+        this.metricsConfig = metricsConfig;
+        this.routeResolver = routeResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            chain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            // Counted only now, once the outcome is known
+            String uri = routeResolver.resolve(request, status);
+            String method = STANDARD_METHODS.contains(request.getMethod()) ? request.getMethod() : OTHER_METHOD;
+            MetricsConfig.RequestMeters meters = metricsConfig.getRequestMeters(uri, method, status);
+            meters.calls().increment();
+            meters.responseTime().record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.route = uri;
+                event.status = status;
+                event.commit();
+            }
+        }
+    }
+}
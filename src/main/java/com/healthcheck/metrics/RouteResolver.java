@@ -0,0 +1,80 @@
+package com.healthcheck.metrics;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Maps a request to its route template (e.g. /v1/product/{productId}) for
+ * metric tags and profiles. Requests that match no route become NOT_FOUND,
+ * REDIRECTION or UNKNOWN instead of their raw path, which keeps cardinality
+ * bounded.
+ */
+@Component
+public class RouteResolver {
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+
+    public RouteResolver(@Qualifier("requestMappingHandlerMapping")
+                         ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    /**
+     * Route of a completed request; looked up after the fact if it never reached dispatch.
+     */
+    public String resolve(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null && status != HttpServletResponse.SC_NOT_FOUND) {
+            pattern = lookUpPattern(request);
+        }
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        if (status == HttpServletResponse.SC_NOT_FOUND) {
+            return "NOT_FOUND";
+        }
+        if (status >= 300 && status < 400) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+
+    /**
+     * Route of a request that has not been dispatched yet. The attributes the
+     * handler lookup leaves behind are removed so dispatch starts from a clean request.
+     */
+    public String resolveBeforeDispatch(HttpServletRequest request) {
+        Set<String> existing = new HashSet<>(Collections.list(request.getAttributeNames()));
+        Object pattern = lookUpPattern(request);
+        for (String name : Collections.list(request.getAttributeNames())) {
+            if (!existing.contains(name)) {
+                request.removeAttribute(name);
+            }
+        }
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    // Matching the handler sets the pattern attribute as a side effect
+    private Object lookUpPattern(HttpServletRequest request) {
+        RequestMappingHandlerMapping mapping = handlerMapping.getIfAvailable();
+        if (mapping == null) {
+            return null;
+        }
+        try {
+            mapping.getHandler(request);
+        } catch (Exception e) {
+            return null;
+        }
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,125 @@
+package com.healthcheck.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request phase timings, rendered as a Server-Timing header and attached
+ * to slow-request records.
+ *
+ * Bound to the request thread by the outermost filter that needs it
+ * ({@link ServerTimingFilter}, SlowRequestFilter) and shared by the others;
+ * {@link #current()} is null when neither is enabled, so recording sites cost
+ * a ThreadLocal read when the features are off. The {@code db} phase is fed
+ * per statement by TimedDataSource, {@code s3} by {@link ServerTimingTimer}.
+ */
+public final class ServerTiming {
+
+    public static final int DB = 0;
+    public static final int S3 = 1;
+
+    private static final String[] PHASE_NAMES = {"db", "s3"};
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt;
+    private long authenticatedAt;
+    private long serializationStartedAt;
+    private final long[] phaseNanos = new long[PHASE_NAMES.length];
+    private final int[] phaseCounts = new int[PHASE_NAMES.length];
+
+    private ServerTiming(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a new collector to this thread unless one is already bound.
+     *
+     * @return the new collector, to be passed to {@link #close}; null if another filter owns the current one
+     */
+    public static ServerTiming open() {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void close(ServerTiming owned) {
+        if (owned != null && CURRENT.get() == owned) {
+            CURRENT.remove();
+        }
+    }
+
+    public void add(int phase, long nanos) {
+        phaseNanos[phase] += nanos;
+        phaseCounts[phase]++;
+    }
+
+    void markAuthenticated(long now) {
+        authenticatedAt = now;
+    }
+
+    void markSerializationStarted(long now) {
+        serializationStartedAt = now;
+    }
+
+    /**
+     * Phase durations in milliseconds (auth, db, s3, ser, total), for phases that ran.
+     */
+    public Map<String, Double> phasesMillis(long finishedAt) {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        if (authenticatedAt != 0) {
+            phases.put("auth", millis(authenticatedAt - startedAt));
+        }
+        for (int phase = 0; phase < PHASE_NAMES.length; phase++) {
+            if (phaseCounts[phase] > 0) {
+                phases.put(PHASE_NAMES[phase], millis(phaseNanos[phase]));
+            }
+        }
+        if (serializationStartedAt != 0) {
+            phases.put("ser", millis(finishedAt - serializationStartedAt));
+        }
+        phases.put("total", millis(finishedAt - startedAt));
+        return phases;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * e.g. {@code auth;dur=1.20, db;dur=3.41;desc="2 calls", ser;dur=0.35, total;dur=6.02}
+     */
+    String toHeader(long finishedAt) {
+        StringBuilder header = new StringBuilder(128);
+        if (authenticatedAt != 0) {
+            append(header, "auth", authenticatedAt - startedAt, 0);
+        }
+        for (int phase = 0; phase < PHASE_NAMES.length; phase++) {
+            if (phaseCounts[phase] > 0) {
+                append(header, PHASE_NAMES[phase], phaseNanos[phase], phaseCounts[phase]);
+            }
+        }
+        if (serializationStartedAt != 0) {
+            append(header, "ser", finishedAt - serializationStartedAt, 0);
+        }
+        append(header, "total", finishedAt - startedAt, 0);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, long nanos, int count) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0));
+        if (count > 0) {
+            header.append(";desc=\"").append(count).append(count == 1 ? " call\"" : " calls\"");
+        }
+    }
+}
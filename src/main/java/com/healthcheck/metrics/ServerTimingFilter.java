@@ -0,0 +1,78 @@
+package com.healthcheck.metrics;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Adds a Server-Timing header (auth, db, s3, ser, total) to every response
+ * when {@code metrics.server-timing.enabled} is set.
+ *
+ * The body is buffered so the header can still be set once serialization has
+ * finished, which costs a copy per response; leave it off unless a load test
+ * or client needs the breakdown.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private final boolean enabled;
+
+    public ServerTimingFilter(@Value("${metrics.server-timing.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Shares the collector with an outer filter (slow-request recorder) if there is one
+        ServerTiming owned = ServerTiming.open();
+        ServerTiming timing = ServerTiming.current();
+        ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, bufferedResponse);
+        } finally {
+            ServerTiming.close(owned);
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, timing.toHeader(System.nanoTime()));
+            }
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Marks the end of the auth phase; runs right after Spring Security's chain.
+     */
+    @Component
+    @Order(SecurityProperties.DEFAULT_FILTER_ORDER + 5)
+    static class AuthenticatedMarker extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.markAuthenticated(System.nanoTime());
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
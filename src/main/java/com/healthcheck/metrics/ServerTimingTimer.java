@@ -0,0 +1,93 @@
+package com.healthcheck.metrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+
+/**
+ * Timer that also adds each recording to the current request's
+ * {@link ServerTiming} phase, so existing {@code sample.stop(timer)} call sites
+ * feed the Server-Timing header without changes.
+ */
+public class ServerTimingTimer implements Timer {
+
+    private final Timer delegate;
+    private final int phase;
+
+    public ServerTimingTimer(Timer delegate, int phase) {
+        this.delegate = delegate;
+        this.phase = phase;
+    }
+
+    @Override
+    public void record(long amount, TimeUnit unit) {
+        delegate.record(amount, unit);
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            timing.add(phase, unit.toNanos(amount));
+        }
+    }
+
+    @Override
+    public <T> T record(Supplier<T> f) {
+        long start = System.nanoTime();
+        try {
+            return f.get();
+        } finally {
+            record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public <T> T recordCallable(Callable<T> f) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return f.call();
+        } finally {
+            record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void record(Runnable f) {
+        long start = System.nanoTime();
+        try {
+            f.run();
+        } finally {
+            record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public double totalTime(TimeUnit unit) {
+        return delegate.totalTime(unit);
+    }
+
+    @Override
+    public double max(TimeUnit unit) {
+        return delegate.max(unit);
+    }
+
+    @Override
+    public TimeUnit baseTimeUnit() {
+        return delegate.baseTimeUnit();
+    }
+
+    @Override
+    public HistogramSnapshot takeSnapshot() {
+        return delegate.takeSnapshot();
+    }
+
+    @Override
+    public Id getId() {
+        return delegate.getId();
+    }
+}
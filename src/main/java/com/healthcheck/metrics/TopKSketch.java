@@ -0,0 +1,117 @@
+package com.healthcheck.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory streaming top-K: a count-min sketch estimates the weight of
+ * every key, and the K keys with the highest estimates are kept alongside.
+ *
+ * Sketch updates are lock-free. The candidate set is only locked when a key's
+ * estimate reaches the current K-th largest weight, which for skewed traffic is
+ * rare once the heavy hitters are established. Estimates never undercount and
+ * overcount by at most e/width of the total weight with probability 1 - e^-depth.
+ */
+public final class TopKSketch {
+
+    private final int k;
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray cells;
+
+    // key -> estimate for the current top K; guarded by this
+    private final Map<String, Long> top = new HashMap<>();
+    private volatile long threshold = 0;
+
+    public TopKSketch(int k, int width, int depth) {
+        this.k = Math.max(1, k);
+        this.width = Math.max(16, width);
+        this.depth = Math.max(1, depth);
+        this.cells = new AtomicLongArray(this.width * this.depth);
+    }
+
+    public void add(String key, long weight) {
+        if (key == null || weight <= 0) {
+            return;
+        }
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = ((h1 + row * h2) & Integer.MAX_VALUE) % width;
+            estimate = Math.min(estimate, cells.addAndGet(row * width + column, weight));
+        }
+        if (estimate >= threshold) {
+            offer(key, estimate);
+        }
+    }
+
+    /**
+     * @return the current top entries, largest first
+     */
+    public synchronized List<Entry> top() {
+        List<Entry> entries = new ArrayList<>(top.size());
+        top.forEach((key, estimate) -> entries.add(new Entry(key, estimate)));
+        entries.sort(Comparator.comparingLong(Entry::estimate).reversed());
+        return entries;
+    }
+
+    /**
+     * Halve every count so old traffic fades out and the top list follows current load.
+     */
+    public synchronized void decay() {
+        for (int i = 0; i < cells.length(); i++) {
+            cells.getAndUpdate(i, value -> value >>> 1);
+        }
+        top.replaceAll((key, estimate) -> estimate >>> 1);
+        top.values().removeIf(estimate -> estimate == 0);
+        threshold = top.size() < k ? 0 : minimum();
+    }
+
+    private synchronized void offer(String key, long estimate) {
+        if (top.containsKey(key) || top.size() < k) {
+            top.put(key, estimate);
+        } else {
+            String smallest = null;
+            long smallestEstimate = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> entry : top.entrySet()) {
+                if (entry.getValue() < smallestEstimate) {
+                    smallest = entry.getKey();
+                    smallestEstimate = entry.getValue();
+                }
+            }
+            if (estimate <= smallestEstimate) {
+                return;
+            }
+            top.remove(smallest);
+            top.put(key, estimate);
+        }
+        threshold = top.size() < k ? 0 : minimum();
+    }
+
+    private long minimum() {
+        long min = Long.MAX_VALUE;
+        for (long estimate : top.values()) {
+            min = Math.min(min, estimate);
+        }
+        return min;
+    }
+
+    // MurmurHash3 finaliser, spreads String.hashCode over 64 bits for double hashing
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public record Entry(String key, long estimate) {
+    }
+}
@@ -1,9 +1,13 @@
 package com.healthcheck.repository;
 
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -18,6 +22,14 @@ public interface HealthCheckRepository extends JpaRepository<HealthCheck, Long>
     @Query("SELECT COUNT(h) FROM HealthCheck h")
     long countAllHealthChecks();
 
+    // Oldest-first page of rows due for rollup, served by idx_check_datetime
+    @Query("SELECT h FROM HealthCheck h WHERE h.checkDatetime < :cutoff ORDER BY h.checkDatetime, h.checkId")
+    List<HealthCheck> findOlderThan(Instant cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM HealthCheck h WHERE h.checkId IN :ids")
+    int deleteByIds(Collection<Long> ids);
+
     @Query(value = "SELECT 1", nativeQuery = true)
     Integer testConnection();
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.healthcheck.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.healthcheck.entity.HealthCheckRollup;
+
+@Repository
+public interface HealthCheckRollupRepository extends JpaRepository<HealthCheckRollup, Instant> {
+
+    @Query("SELECT COALESCE(SUM(r.checkCount), 0) FROM HealthCheckRollup r")
+    long sumCheckCounts();
+}
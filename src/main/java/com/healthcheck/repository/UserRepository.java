@@ -1,9 +1,13 @@
 package com.healthcheck.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.healthcheck.dto.UserCredentials;
 import com.healthcheck.entity.User;
 
 @Repository
@@ -12,6 +16,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.email = :username")
     User findByUsername(String username);
 
+    // Auth-only columns, not added to the persistence context
+    @Query("SELECT new com.healthcheck.dto.UserCredentials(u.id, u.email, u.password, u.isVerified) " +
+           "FROM User u WHERE u.email = :username")
+    UserCredentials findCredentialsByUsername(String username);
+
     @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.email = :username")
     boolean existsByUsername(String username);
+
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllUsernames();
+
+    @Query("SELECT u.email FROM User u WHERE u.accountCreated >= :since")
+    List<String> findUsernamesCreatedSince(LocalDateTime since);
 }
\ No newline at end of file
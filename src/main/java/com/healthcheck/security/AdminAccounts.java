@@ -0,0 +1,40 @@
+package com.healthcheck.security;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides which accounts get ROLE_ADMIN, which the diagnostics actuator
+ * endpoints (JFR, profiler, slow requests, heavy hitters) require.
+ *
+ * The role comes from configuration, not the users table, so self-registration
+ * can never grant it; the account also has to have verified its email.
+ */
+@Slf4j
+@Component
+public class AdminAccounts {
+
+    public static final String ROLE = "ADMIN";
+
+    private final Set<String> emails;
+
+    public AdminAccounts(@Value("${security.admin.emails:}") String emails) {
+        this.emails = Arrays.stream(emails.split(","))
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        log.info("{} admin account(s) configured", this.emails.size());
+    }
+
+    public boolean isAdmin(String email, boolean verified) {
+        return verified && email != null && emails.contains(email.toLowerCase(Locale.ROOT));
+    }
+}
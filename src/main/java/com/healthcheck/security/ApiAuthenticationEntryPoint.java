@@ -0,0 +1,38 @@
+package com.healthcheck.security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+
+import com.healthcheck.exception.HashingCapacityExceededException;
+import com.healthcheck.exception.TooManyLoginAttemptsException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Basic entry point that answers 503 + Retry-After when authentication failed
+ * because the server shed load, and 429 + Retry-After when the caller was
+ * throttled for repeated failures, instead of 401.
+ */
+public class ApiAuthenticationEntryPoint extends BasicAuthenticationEntryPoint {
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException {
+        if (authException.getCause() instanceof HashingCapacityExceededException overloaded) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+            return;
+        }
+        if (authException.getCause() instanceof TooManyLoginAttemptsException throttled) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(throttled.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+            return;
+        }
+        super.commence(request, response, authException);
+    }
+}
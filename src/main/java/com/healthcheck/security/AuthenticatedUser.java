@@ -0,0 +1,84 @@
+package com.healthcheck.security;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Security principal carrying what the controllers need about the caller
+ * (id, email, verified flag), so they don't have to query the user again.
+ *
+ * Controllers receive it with {@code @AuthenticationPrincipal AuthenticatedUser}.
+ * Admins (see {@link AdminAccounts}) carry ROLE_ADMIN, everyone else no authorities.
+ */
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String email;
+    private final boolean verified;
+    private final boolean admin;
+    private String password;
+
+    public AuthenticatedUser(Long id, String email, String password, boolean verified) {
+        this(id, email, password, verified, false);
+    }
+
+    public AuthenticatedUser(Long id, String email, String password, boolean verified, boolean admin) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.verified = verified;
+        this.admin = admin;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the user's email, which is the login name
+     */
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return admin
+                ? Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + AdminAccounts.ROLE))
+                : Collections.emptyList();
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{" +
+                "id=" + id +
+                ", email='" + email + '\'' +
+                ", verified=" + verified +
+                ", admin=" + admin +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package com.healthcheck.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+/**
+ * Authentication established from a signed access token rather than a password.
+ */
+public class BearerTokenAuthentication extends AbstractAuthenticationToken {
+
+    private final AuthenticatedUser principal;
+
+    public BearerTokenAuthentication(AuthenticatedUser principal) {
+        super(principal.getAuthorities());
+        this.principal = principal;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+}
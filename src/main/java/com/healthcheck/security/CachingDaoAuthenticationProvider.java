@@ -0,0 +1,74 @@
+package com.healthcheck.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import com.healthcheck.exception.HashingCapacityExceededException;
+import com.healthcheck.exception.TooManyLoginAttemptsException;
+
+/**
+ * DaoAuthenticationProvider that consults the {@link LoginThrottle} before doing
+ * any work and the {@link VerifiedCredentialCache} before running the
+ * (expensive) BCrypt comparison.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final VerifiedCredentialCache credentialCache;
+    private final LoginThrottle loginThrottle;
+
+    public CachingDaoAuthenticationProvider(VerifiedCredentialCache credentialCache, LoginThrottle loginThrottle) {
+        this.credentialCache = credentialCache;
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        String ip = authentication.getDetails() instanceof WebAuthenticationDetails details
+                ? details.getRemoteAddress() : null;
+
+        try {
+            loginThrottle.checkAllowed(email, ip);
+        } catch (TooManyLoginAttemptsException e) {
+            // Surfaces through the entry point as 429 + Retry-After
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
+
+        try {
+            Authentication result = super.authenticate(authentication);
+            loginThrottle.recordSuccess(email);
+            return result;
+        } catch (BadCredentialsException e) {
+            // Unknown users surface as BadCredentials too, so they count against the IP
+            loginThrottle.recordFailure(email, ip);
+            throw e;
+        } catch (HashingCapacityExceededException e) {
+            // Thrown from the password check, and for unknown users from the timing-attack
+            // dummy check in retrieveUser (final, so it can't be wrapped there).
+            // Surfaces through the entry point as 503 + Retry-After
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null && credentialCache.isVerified(
+                userDetails.getUsername(), credentials.toString(), userDetails.getPassword())) {
+            return;
+        }
+
+        super.additionalAuthenticationChecks(userDetails, authentication);
+
+        // Only reached when BCrypt accepted the password
+        credentialCache.put(userDetails.getUsername(), credentials.toString(), userDetails.getPassword());
+    }
+}
@@ -0,0 +1,209 @@
+package com.healthcheck.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.healthcheck.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bloom filter of registered emails used to reject logins for unknown emails
+ * without a database query.
+ *
+ * Seeded from the users table at startup, updated by UserService.createUser and
+ * topped up on a schedule with users created on other instances. A miss also
+ * triggers that top-up, at most once per {@code miss-refresh-interval-ms} and
+ * one at a time, so a user who just signed up on another instance is not
+ * turned away until the next scheduled refresh. A negative answer is then
+ * certain; a positive one still goes to the database. Until the initial seed
+ * has finished every email is treated as possibly known.
+ */
+@Slf4j
+@Component
+public class KnownEmailFilter {
+
+    private final boolean enabled;
+    private final long refreshIntervalMs;
+    private final long missRefreshIntervalMs;
+    private final UserRepository userRepository;
+
+    private final int numBits;
+    private final int numHashes;
+    private final AtomicLongArray bits;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private volatile boolean seeded = false;
+    private volatile LocalDateTime lastRefresh;
+    private long lastMissRefreshAt;
+
+    private final Counter rejectedCounter;
+    private final Counter passedCounter;
+    private final Counter falsePositiveCounter;
+
+    public KnownEmailFilter(
+            @Value("${security.known-email-filter.enabled:true}") boolean enabled,
+            @Value("${security.known-email-filter.expected-insertions:100000}") long expectedInsertions,
+            @Value("${security.known-email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${security.known-email-filter.refresh-interval-ms:30000}") long refreshIntervalMs,
+            @Value("${security.known-email-filter.miss-refresh-interval-ms:1000}") long missRefreshIntervalMs,
+            UserRepository userRepository,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.missRefreshIntervalMs = missRefreshIntervalMs;
+        this.userRepository = userRepository;
+
+        // Standard sizing: m = -n ln(p) / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+
+        this.rejectedCounter = Counter.builder("auth.known_email.lookups")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        this.passedCounter = Counter.builder("auth.known_email.lookups")
+                .tag("result", "passed")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("auth.known_email.lookups")
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+        Gauge.builder("auth.known_email.expected_fpp", this, KnownEmailFilter::expectedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<String> emails = userRepository.findAllUsernames();
+        emails.forEach(this::add);
+        lastRefresh = startedAt;
+        seeded = true;
+        log.info("Known email filter seeded with {} emails ({} bits, {} hashes)", emails.size(), numBits, numHashes);
+    }
+
+    // Picks up users created on other instances; the overlap covers clock skew and slow commits
+    @Scheduled(fixedDelayString = "${security.known-email-filter.refresh-interval-ms:30000}",
+               initialDelayString = "${security.known-email-filter.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (!enabled || !seeded) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            List<String> emails = userRepository.findUsernamesCreatedSince(
+                    lastRefresh.minusNanos((refreshIntervalMs * 2 + 60_000) * 1_000_000));
+            emails.forEach(this::add);
+            lastRefresh = startedAt;
+            log.debug("Known email filter refreshed with {} recent emails", emails.size());
+        } catch (Exception e) {
+            log.warn("Known email filter refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public void add(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            long mask = 1L << bit;
+            bits.getAndAccumulate(bit >>> 6, mask, (current, m) -> current | m);
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @return false only if the email is certainly not registered
+     */
+    public boolean mightContain(String email) {
+        if (!enabled || !seeded || email == null) {
+            return true;
+        }
+        if (!contains(email)) {
+            refreshOnMiss();
+            if (!contains(email)) {
+                rejectedCounter.increment();
+                return false;
+            }
+        }
+        passedCounter.increment();
+        return true;
+    }
+
+    // Threads that miss while a refresh is running wait for it and then check again
+    private void refreshOnMiss() {
+        if (missRefreshIntervalMs < 0) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now - lastMissRefreshAt < missRefreshIntervalMs) {
+                return;
+            }
+            lastMissRefreshAt = now;
+            refresh();
+        }
+    }
+
+    private boolean contains(String email) {
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Called when the filter let an email through but the database had no such user.
+     */
+    public void recordFalsePositive() {
+        falsePositiveCounter.increment();
+    }
+
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) numHashes * insertions.get() / numBits), numHashes);
+    }
+
+    // Emails are matched case-insensitively by the database, so normalise before hashing
+    private static long hash(String email) {
+        byte[] data = email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        long h = 0xcbf29ce484222325L;  // FNV-1a 64
+        for (byte b : data) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        // MurmurHash3 finaliser to spread the bits
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
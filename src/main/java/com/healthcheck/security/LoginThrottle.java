@@ -0,0 +1,214 @@
+package com.healthcheck.security;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.healthcheck.exception.TooManyLoginAttemptsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sliding-window counter of failed logins per email and per client IP.
+ *
+ * Each key owns a ring of time buckets; a bucket is a single AtomicLong slot
+ * packing (bucket epoch, failure count), so recording and reading a failure is
+ * a CAS without locks. Buckets older than the window are ignored and reused.
+ * The key map is bounded: when full, each new key triggers a short scan from a
+ * cursor that walks the map round-robin, dropping idle keys it meets (or the
+ * first one scanned if none are idle), so eviction costs O(1) per new key.
+ *
+ * The client IP is the request's remote address; behind the load balancer that
+ * relies on server.forward-headers-strategy resolving X-Forwarded-For.
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int EVICTION_SCAN = 32;
+
+    private final boolean enabled;
+    private final int bucketCount;
+    private final long bucketNanos;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final int maxKeys;
+    private final long origin = System.nanoTime();
+    private final Map<String, Window> windows;
+    private Iterator<Map.Entry<String, Window>> evictionCursor;
+
+    private final Counter blockedEmailCounter;
+    private final Counter blockedIpCounter;
+    private final Counter evictionCounter;
+
+    public LoginThrottle(
+            @Value("${security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${security.login-throttle.window-seconds:300}") long windowSeconds,
+            @Value("${security.login-throttle.buckets:10}") int buckets,
+            @Value("${security.login-throttle.max-failures-per-email:10}") int maxFailuresPerEmail,
+            @Value("${security.login-throttle.max-failures-per-ip:100}") int maxFailuresPerIp,
+            @Value("${security.login-throttle.max-keys:100000}") int maxKeys,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.bucketCount = Math.max(1, buckets);
+        this.bucketNanos = Math.max(1, windowSeconds * 1_000_000_000L / bucketCount);
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.maxKeys = maxKeys;
+        this.windows = new ConcurrentHashMap<>(Math.max(16, Math.min(maxKeys, 4096)));
+
+        this.blockedEmailCounter = Counter.builder("auth.login.throttled")
+                .tag("key", "email")
+                .register(meterRegistry);
+        this.blockedIpCounter = Counter.builder("auth.login.throttled")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("auth.login.throttle.evictions")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", windows, Map::size)
+                .register(meterRegistry);
+
+        log.info("Login throttle enabled: {}, window: {}s, max failures per email: {}, per IP: {}",
+                 enabled, windowSeconds, maxFailuresPerEmail, maxFailuresPerIp);
+    }
+
+    /**
+     * Called before any password work.
+     *
+     * @throws TooManyLoginAttemptsException if the email or IP is over its failure limit
+     */
+    public void checkAllowed(String email, String ip) {
+        if (!enabled) {
+            return;
+        }
+        long epoch = currentEpoch();
+        if (email != null && failures(emailKey(email), epoch) >= maxFailuresPerEmail) {
+            blockedEmailCounter.increment();
+            throw new TooManyLoginAttemptsException("Too many failed logins for account", retryAfterSeconds());
+        }
+        if (ip != null && failures(ipKey(ip), epoch) >= maxFailuresPerIp) {
+            blockedIpCounter.increment();
+            throw new TooManyLoginAttemptsException("Too many failed logins from client", retryAfterSeconds());
+        }
+    }
+
+    public void recordFailure(String email, String ip) {
+        if (!enabled) {
+            return;
+        }
+        long epoch = currentEpoch();
+        if (email != null) {
+            window(emailKey(email)).increment(epoch);
+        }
+        if (ip != null) {
+            window(ipKey(ip)).increment(epoch);
+        }
+    }
+
+    // A correct password clears the account's history; the IP keeps counting
+    public void recordSuccess(String email) {
+        if (enabled && email != null) {
+            windows.remove(emailKey(email));
+        }
+    }
+
+    private int failures(String key, long epoch) {
+        Window window = windows.get(key);
+        return window == null ? 0 : window.sum(epoch);
+    }
+
+    private Window window(String key) {
+        Window window = windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= maxKeys) {
+            evict();
+        }
+        return windows.computeIfAbsent(key, k -> new Window());
+    }
+
+    // Scans a few keys from where the last eviction stopped; idle ones go first, otherwise the first scanned
+    private synchronized void evict() {
+        long epoch = currentEpoch();
+        String fallback = null;
+        boolean removedIdle = false;
+        for (int scanned = 0; scanned < EVICTION_SCAN && !windows.isEmpty(); scanned++) {
+            if (evictionCursor == null || !evictionCursor.hasNext()) {
+                evictionCursor = windows.entrySet().iterator();
+                if (!evictionCursor.hasNext()) {
+                    break;
+                }
+            }
+            Map.Entry<String, Window> entry = evictionCursor.next();
+            if (entry.getValue().sum(epoch) == 0) {
+                evictionCursor.remove();
+                removedIdle = true;
+            } else if (fallback == null) {
+                fallback = entry.getKey();
+            }
+        }
+        if (!removedIdle && fallback != null) {
+            windows.remove(fallback);
+            evictionCounter.increment();
+        }
+    }
+
+    private long currentEpoch() {
+        return (System.nanoTime() - origin) / bucketNanos;
+    }
+
+    // Oldest failures leave the window one bucket at a time
+    private long retryAfterSeconds() {
+        return Math.max(1, (bucketNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+
+    private final class Window {
+        // Each slot holds (epoch << COUNT_BITS) | count for the bucket it currently represents
+        private final AtomicLongArray slots = new AtomicLongArray(bucketCount);
+
+        private void increment(long epoch) {
+            int index = (int) (epoch % bucketCount);
+            while (true) {
+                long current = slots.get(index);
+                long count = (current >>> COUNT_BITS) == epoch ? current & COUNT_MASK : 0;
+                if (count == COUNT_MASK) {
+                    return;
+                }
+                long next = (epoch << COUNT_BITS) | (count + 1);
+                if (slots.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private int sum(long epoch) {
+            long total = 0;
+            for (int i = 0; i < bucketCount; i++) {
+                long slot = slots.get(i);
+                if (epoch - (slot >>> COUNT_BITS) < bucketCount) {
+                    total += slot & COUNT_MASK;
+                }
+            }
+            return (int) Math.min(Integer.MAX_VALUE, total);
+        }
+    }
+}
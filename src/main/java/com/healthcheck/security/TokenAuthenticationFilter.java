@@ -0,0 +1,48 @@
+package com.healthcheck.security;
+
+import java.io.IOException;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authenticates {@code Authorization: Bearer <token>} requests by signature and
+ * expiry only. Requests without a bearer token fall through to HTTP Basic.
+ */
+@Slf4j
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            AuthenticatedUser user = tokenService.verifyToken(header.substring(BEARER_PREFIX.length()).trim());
+            if (user != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(new BearerTokenAuthentication(user));
+                SecurityContextHolder.setContext(context);
+            } else {
+                // Left unauthenticated; protected endpoints answer 401 through the entry point
+                log.debug("{} {} - Rejected invalid or expired bearer token", request.getMethod(), request.getRequestURI());
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
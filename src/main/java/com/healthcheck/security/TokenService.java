@@ -0,0 +1,116 @@
+package com.healthcheck.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues and verifies short-lived HMAC-SHA256 signed access tokens.
+ *
+ * Token format: {@code base64url(payload) + "." + base64url(hmac(payload))},
+ * where payload is {@code userId \n verified \n expiresAtEpochSeconds \n email}.
+ * Verification only checks the signature and expiry, so it needs no database or
+ * BCrypt work. The verified flag is taken at issue time; a user who verifies their
+ * email afterwards needs a new token. The admin role is not part of the token; it is
+ * re-derived from {@link AdminAccounts} on every verification, so removing an admin
+ * from the configuration takes effect without waiting for their tokens to expire.
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec keySpec;
+    private final long ttlSeconds;
+    private final AdminAccounts adminAccounts;
+
+    public TokenService(
+            @Value("${security.token.secret:}") String secret,
+            @Value("${security.token.ttl-seconds:900}") long ttlSeconds,
+            AdminAccounts adminAccounts) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // Tokens will only be accepted by this instance
+            log.warn("security.token.secret is not set, using a random per-instance signing key");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.keySpec = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+        this.adminAccounts = adminAccounts;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public String issueToken(AuthenticatedUser user) {
+        long expiresAt = Instant.now().getEpochSecond() + ttlSeconds;
+        String content = user.getId() + "\n" + (user.isVerified() ? 1 : 0) + "\n" + expiresAt + "\n" + user.getUsername();
+        byte[] payload = content.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * @return the principal the token was issued for, or null if the token is malformed,
+     *         has an invalid signature or has expired
+     */
+    public AuthenticatedUser verifyToken(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+
+            String[] fields = new String(payload, StandardCharsets.UTF_8).split("\n", 4);
+            if (fields.length != 4) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(fields[2]);
+            if (Instant.now().getEpochSecond() >= expiresAt) {
+                return null;
+            }
+            boolean verified = "1".equals(fields[1]);
+            return new AuthenticatedUser(Long.valueOf(fields[0]), fields[3], null, verified,
+                    adminAccounts.isAdmin(fields[3], verified));
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or number
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(keySpec);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available for token signing", e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.healthcheck.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded, TTL-based cache of credentials that already passed a BCrypt check.
+ *
+ * There is one entry per email, holding an HMAC-SHA256 of (email, password)
+ * under a per-process random key, so raw passwords are never kept in memory.
+ * Each entry also remembers the stored password hash it was verified against;
+ * a hit only counts when that hash is still the one loaded for the user.
+ *
+ * Lookups and invalidation are a single map operation. The TTL is fixed, so
+ * insertion order is expiry order: writes drop expired entries from the head
+ * of a FIFO and, when full, evict the oldest.
+ */
+@Slf4j
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final SecretKeySpec keySpec;
+    private final Map<String, Entry> entries;
+    // Guarded by this; may still hold entries since replaced or invalidated, which are skipped
+    private final Queue<Entry> insertionOrder = new ArrayDeque<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    public VerifiedCredentialCache(
+            @Value("${security.credential-cache.enabled:true}") boolean enabled,
+            @Value("${security.credential-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${security.credential-cache.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.keySpec = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.entries = new ConcurrentHashMap<>(Math.max(16, maxEntries * 4 / 3 + 1));
+
+        this.hitCounter = Counter.builder("auth.credential.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("auth.credential.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("auth.credential.cache")
+                .tag("result", "eviction")
+                .register(meterRegistry);
+        Gauge.builder("auth.credential.cache.size", entries, Map::size)
+                .register(meterRegistry);
+
+        log.info("Verified credential cache enabled: {}, TTL: {}s, max entries: {}", enabled, ttlSeconds, maxEntries);
+    }
+
+    /**
+     * @return true if (email, password) was verified against {@code passwordHash} within the TTL
+     */
+    public boolean isVerified(String email, String password, String passwordHash) {
+        if (!enabled || email == null || password == null || passwordHash == null) {
+            return false;
+        }
+
+        byte[] credential = credentialMac(email, password);
+        String key = email.toLowerCase(Locale.ROOT);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCounter.increment();
+            return false;
+        }
+
+        if (entry.isExpired(System.nanoTime()) || !entry.passwordHash.equals(passwordHash)) {
+            entries.remove(key, entry);
+            missCounter.increment();
+            return false;
+        }
+        // A wrong password leaves the entry for the right one in place
+        if (!MessageDigest.isEqual(entry.credential, credential)) {
+            missCounter.increment();
+            return false;
+        }
+
+        hitCounter.increment();
+        return true;
+    }
+
+    /**
+     * Remember that (email, password) matched {@code passwordHash}.
+     */
+    public void put(String email, String password, String passwordHash) {
+        if (!enabled || email == null || password == null || passwordHash == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        Entry entry = new Entry(email.toLowerCase(Locale.ROOT), credentialMac(email, password), passwordHash,
+                now + ttlNanos);
+        // Only reached after a BCrypt check, so the lock is never contended for long
+        synchronized (this) {
+            evict(now);
+            insertionOrder.add(entry);
+            entries.put(entry.email, entry);
+        }
+    }
+
+    /**
+     * Drop the cached credential for the given email, e.g. after a password change.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        if (entries.remove(email.toLowerCase(Locale.ROOT)) != null) {
+            log.debug("Invalidated cached credentials for {}", email);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    // Expired entries go first; if the cache is still full, the oldest entries make room
+    private void evict(long now) {
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (oldest.isExpired(now) || insertionOrder.size() >= maxEntries)) {
+            insertionOrder.poll();
+            if (entries.remove(oldest.email, oldest) && !oldest.isExpired(now)) {
+                evictionCounter.increment();
+            }
+        }
+    }
+
+    private byte[] credentialMac(String email, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(keySpec);
+            mac.update(email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available for credential cache", e);
+        }
+    }
+
+    private static final class Entry {
+        private final String email;
+        private final byte[] credential;
+        private final String passwordHash;
+        private final long expiresAtNanos;
+
+        private Entry(String email, byte[] credential, String passwordHash, long expiresAtNanos) {
+            this.email = email;
+            this.credential = credential;
+            this.passwordHash = passwordHash;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
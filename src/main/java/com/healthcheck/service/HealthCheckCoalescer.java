@@ -0,0 +1,121 @@
+package com.healthcheck.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-flight wrapper around {@link HealthCheckService#performHealthCheck()}.
+ *
+ * The first probe to arrive runs the check; probes that arrive while it is in
+ * flight, or within {@code window-ms} after it finished, wait for and share its
+ * result instead of running their own. Deliberately not transactional: the
+ * shared check opens its own transaction in HealthCheckService.
+ */
+@Slf4j
+@Component
+public class HealthCheckCoalescer {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final long maxWaitMs;
+    private final HealthCheckService healthCheckService;
+    private final AtomicReference<Flight> current = new AtomicReference<>();
+
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+
+    public HealthCheckCoalescer(
+            @Value("${healthcheck.coalesce.enabled:true}") boolean enabled,
+            @Value("${healthcheck.coalesce.window-ms:0}") long windowMs,
+            @Value("${healthcheck.coalesce.max-wait-ms:5000}") long maxWaitMs,
+            HealthCheckService healthCheckService,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxWaitMs = maxWaitMs;
+        this.healthCheckService = healthCheckService;
+
+        this.executedCounter = Counter.builder("healthcheck.probe.requests")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("healthcheck.probe.requests")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+
+        log.info("Health check coalescing enabled: {}, window: {}ms", enabled, windowMs);
+    }
+
+    public boolean performHealthCheck() {
+        if (!enabled) {
+            executedCounter.increment();
+            return healthCheckService.performHealthCheck();
+        }
+
+        while (true) {
+            Flight flight = current.get();
+            if (flight != null && flight.isShareable(System.nanoTime(), windowNanos)) {
+                coalescedCounter.increment();
+                return await(flight);
+            }
+
+            Flight mine = new Flight();
+            if (current.compareAndSet(flight, mine)) {
+                executedCounter.increment();
+                return run(mine);
+            }
+            // Lost the race to another leader, join its flight on the next pass
+        }
+    }
+
+    private boolean run(Flight flight) {
+        boolean healthy = false;
+        try {
+            healthy = healthCheckService.performHealthCheck();
+            return healthy;
+        } finally {
+            flight.complete(healthy);
+            if (windowNanos == 0) {
+                current.compareAndSet(flight, null);
+            }
+        }
+    }
+
+    private boolean await(Flight flight) {
+        try {
+            return flight.result.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Timed out after {}ms waiting for in-flight health check", maxWaitMs);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private volatile long completedAtNanos;
+
+        private void complete(boolean healthy) {
+            completedAtNanos = System.nanoTime();
+            result.complete(healthy);
+        }
+
+        // In flight, or finished recently enough to reuse the result
+        private boolean isShareable(long now, long windowNanos) {
+            return !result.isDone() || now - completedAtNanos < windowNanos;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.healthcheck.service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional background prober for /healthz.
+ *
+ * When enabled, the database check runs on a fixed cadence off the request path
+ * and only the latest outcome is kept. /healthz then answers from that snapshot,
+ * and reports unhealthy once the snapshot is older than {@code max-staleness-ms}
+ * (e.g. because a probe is stuck on a slow database).
+ *
+ * Probes run on their own thread rather than Spring's shared scheduler, so a
+ * long retention batch or write-behind flush cannot make /healthz go stale.
+ */
+@Slf4j
+@Component
+public class HealthCheckProber {
+
+    private final boolean enabled;
+    private final long intervalMs;
+    private final long maxStalenessNanos;
+    private final HealthCheckService healthCheckService;
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter failedCounter;
+
+    private volatile ProbeResult latest;
+
+    public HealthCheckProber(
+            @Value("${healthcheck.background.enabled:false}") boolean enabled,
+            @Value("${healthcheck.background.interval-ms:5000}") long intervalMs,
+            @Value("${healthcheck.background.max-staleness-ms:15000}") long maxStalenessMs,
+            HealthCheckService healthCheckService,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.intervalMs = intervalMs;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        this.healthCheckService = healthCheckService;
+        this.scheduler = enabled ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "healthcheck-prober");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+
+        this.failedCounter = Counter.builder("healthcheck.probe.failed")
+                .register(meterRegistry);
+        Gauge.builder("healthcheck.probe.age", this, HealthCheckProber::ageMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        log.info("Background health prober enabled: {}, max staleness: {}ms", enabled, maxStalenessMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::probe, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    void probe() {
+        boolean healthy;
+        try {
+            healthy = healthCheckService.performHealthCheck();
+        } catch (Exception e) {
+            // An exception would cancel the periodic task
+            log.warn("Background health probe failed: {}", e.getMessage());
+            healthy = false;
+        }
+        if (!healthy) {
+            failedCounter.increment();
+        }
+        latest = new ProbeResult(healthy, System.nanoTime());
+    }
+
+    /**
+     * @return true if the last probe succeeded and is recent enough; false before the first probe
+     */
+    public boolean isHealthy() {
+        ProbeResult result = latest;
+        if (result == null || !result.healthy()) {
+            return false;
+        }
+        return System.nanoTime() - result.checkedAtNanos() <= maxStalenessNanos;
+    }
+
+    double ageMillis() {
+        ProbeResult result = latest;
+        return result == null ? Double.NaN
+                : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - result.checkedAtNanos());
+    }
+
+    private record ProbeResult(boolean healthy, long checkedAtNanos) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.healthcheck.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.healthcheck.entity.HealthCheck;
+import com.healthcheck.entity.HealthCheckRollup;
+import com.healthcheck.repository.HealthCheckRepository;
+import com.healthcheck.repository.HealthCheckRollupRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rolls raw health_checks rows older than the retention horizon into per-minute
+ * {@link HealthCheckRollup} rows and deletes them.
+ *
+ * Each batch is one transaction: the rows are folded into their buckets and
+ * deleted together, so a check is always counted exactly once, either as a raw
+ * row or inside a rollup. If another instance already took the same rows the
+ * delete affects fewer rows than were read and the batch is rolled back.
+ */
+@Slf4j
+@Service
+public class HealthCheckRetentionService {
+
+    private final boolean enabled;
+    private final Duration rawRetention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final HealthCheckRepository healthCheckRepository;
+    private final HealthCheckRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter rolledUpCounter;
+
+    public HealthCheckRetentionService(
+            @Value("${healthcheck.retention.enabled:true}") boolean enabled,
+            @Value("${healthcheck.retention.raw-retention-minutes:1440}") long rawRetentionMinutes,
+            @Value("${healthcheck.retention.batch-size:1000}") int batchSize,
+            @Value("${healthcheck.retention.max-batches-per-run:50}") int maxBatchesPerRun,
+            HealthCheckRepository healthCheckRepository,
+            HealthCheckRollupRepository rollupRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.rawRetention = Duration.ofMinutes(rawRetentionMinutes);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.healthCheckRepository = healthCheckRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+
+        this.rolledUpCounter = Counter.builder("healthcheck.retention.rolled_up")
+                .register(meterRegistry);
+
+        log.info("Health check retention enabled: {}, raw retention: {}min, batch size: {}",
+                 enabled, rawRetentionMinutes, this.batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${healthcheck.retention.interval-ms:60000}",
+               initialDelayString = "${healthcheck.retention.interval-ms:60000}")
+    public void rollupAndPurge() {
+        if (!enabled) {
+            return;
+        }
+        // Whole minutes only, so a bucket is never closed while rows for it are still arriving
+        Instant cutoff = Instant.now().minus(rawRetention).truncatedTo(ChronoUnit.MINUTES);
+
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer rolled = transactionTemplate.execute(status -> rollupBatch(cutoff));
+                if (rolled == null || rolled == 0) {
+                    break;
+                }
+                total += rolled;
+                if (rolled < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataIntegrityViolationException | ConcurrentRollupException e) {
+            // Another instance is rolling up the same rows; it will finish the work
+            log.info("Health check rollup yielded to a concurrent run: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("Health check rollup failed: {}", e.getMessage(), e);
+        }
+
+        if (total > 0) {
+            rolledUpCounter.increment(total);
+            log.info("Rolled up and purged {} health check records older than {}", total, cutoff);
+        }
+    }
+
+    private int rollupBatch(Instant cutoff) {
+        List<HealthCheck> rows = healthCheckRepository.findOlderThan(cutoff, PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<Instant, List<HealthCheck>> byMinute = rows.stream()
+                .collect(Collectors.groupingBy(row -> row.getCheckDatetime().truncatedTo(ChronoUnit.MINUTES)));
+
+        Map<Instant, HealthCheckRollup> buckets = new HashMap<>(rollupRepository.findAllById(byMinute.keySet())
+                .stream()
+                .collect(Collectors.toMap(HealthCheckRollup::getBucketStart, Function.identity())));
+        byMinute.forEach((minute, checks) -> {
+            HealthCheckRollup bucket = buckets.computeIfAbsent(minute, HealthCheckRollup::new);
+            checks.forEach(bucket::add);
+        });
+        rollupRepository.saveAll(buckets.values());
+
+        List<Long> ids = rows.stream().map(HealthCheck::getCheckId).toList();
+        int deleted = healthCheckRepository.deleteByIds(ids);
+        if (deleted != ids.size()) {
+            throw new ConcurrentRollupException(ids.size() - deleted + " rows already purged");
+        }
+        return deleted;
+    }
+
+    private static final class ConcurrentRollupException extends RuntimeException {
+        private ConcurrentRollupException(String message) {
+            super(message);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.healthcheck.entity.HealthCheck;
 import com.healthcheck.repository.HealthCheckRepository;
+import com.healthcheck.repository.HealthCheckRollupRepository;
 
 @Service
 @Transactional
@@ -18,25 +19,41 @@ public class HealthCheckService {
     private static final Logger logger = LoggerFactory.getLogger(HealthCheckService.class);
 
     private final HealthCheckRepository healthCheckRepository;
+    private final HealthCheckRollupRepository rollupRepository;
+    private final HealthCheckWriteBuffer writeBuffer;
+    private final ProbeLatencyHistory latencyHistory;
 
     @Autowired
-    public HealthCheckService(HealthCheckRepository healthCheckRepository) {
+    public HealthCheckService(HealthCheckRepository healthCheckRepository,
+                              HealthCheckRollupRepository rollupRepository,
+                              HealthCheckWriteBuffer writeBuffer,
+                              ProbeLatencyHistory latencyHistory) {
         this.healthCheckRepository = healthCheckRepository;
+        this.rollupRepository = rollupRepository;
+        this.writeBuffer = writeBuffer;
+        this.latencyHistory = latencyHistory;
     }
 
     public boolean performHealthCheck() {
     try {
         logger.debug("Starting health check execution...");
 
+        long startedAt = System.nanoTime();
         Integer connectionTest = healthCheckRepository.testConnection();
+        long latencyMicros = (System.nanoTime() - startedAt) / 1_000;
+        latencyHistory.record(latencyMicros);
         if (connectionTest == null || connectionTest != 1) {
             logger.error("Database connection test failed");
             return false;
         }
 
-   
-        HealthCheck healthCheck = new HealthCheck();
-        healthCheck.setCheckDatetime(Instant.now()); // Instant.now() 總是 UTC
+        HealthCheck healthCheck = new HealthCheck(Instant.now(), latencyMicros); // Instant.now() 總是 UTC
+
+        // Write-behind: the record is persisted by the next batched flush
+        if (writeBuffer.offer(healthCheck)) {
+            logger.debug("Health check successful, record buffered");
+            return true;
+        }
         
         HealthCheck savedHealthCheck = healthCheckRepository.save(healthCheck);
 
@@ -65,7 +82,11 @@ public class HealthCheckService {
     @Transactional(readOnly = true)
     public long getHealthCheckCount() {
         try {
-            return healthCheckRepository.countAllHealthChecks();
+            // Rolled-up history plus the raw rows inside the retention window;
+            // buffered records count too, they are only waiting for the next flush
+            return rollupRepository.sumCheckCounts()
+                    + healthCheckRepository.countAllHealthChecks()
+                    + writeBuffer.pending();
         } catch (Exception e) {
             logger.error("Failed to get health check record count: {}", e.getMessage());
             return -1;
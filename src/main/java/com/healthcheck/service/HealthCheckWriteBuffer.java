@@ -0,0 +1,162 @@
+package com.healthcheck.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.healthcheck.entity.HealthCheck;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind buffer for health check records.
+ *
+ * Probes only enqueue their unsaved record; a scheduled flusher drains the queue and
+ * writes the rows with one batched JDBC insert per chunk. When the buffer is
+ * full {@link #offer} returns false and the caller saves synchronously, so no
+ * record is lost. Whatever is left is flushed on shutdown.
+ */
+@Slf4j
+@Component
+public class HealthCheckWriteBuffer {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO health_checks (check_datetime, latency_micros) VALUES (?, ?)";
+
+    // Same binding Hibernate uses for Instant columns, so rows are identical to JPA-written ones
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final BlockingQueue<HealthCheck> buffer;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Counter flushedCounter;
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    public HealthCheckWriteBuffer(
+            @Value("${healthcheck.write-behind.enabled:true}") boolean enabled,
+            @Value("${healthcheck.write-behind.buffer-size:10000}") int bufferSize,
+            @Value("${healthcheck.write-behind.batch-size:500}") int batchSize,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        this.jdbcTemplate = jdbcTemplate;
+
+        this.flushedCounter = Counter.builder("healthcheck.buffer.flushed")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("healthcheck.buffer.overflow")
+                .description("Records written synchronously because the buffer was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("healthcheck.buffer.flush.failed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("healthcheck.buffer.flush.time")
+                .register(meterRegistry);
+        Gauge.builder("healthcheck.buffer.pending", buffer, BlockingQueue::size)
+                .register(meterRegistry);
+
+        log.info("Health check write-behind enabled: {}, buffer size: {}, batch size: {}",
+                 enabled, bufferSize, this.batchSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return false if write-behind is off or the buffer is full; the caller must persist the record itself
+     */
+    public boolean offer(HealthCheck healthCheck) {
+        if (!enabled) {
+            return false;
+        }
+        if (!buffer.offer(healthCheck)) {
+            overflowCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records accepted but not yet written.
+     */
+    public int pending() {
+        return buffer.size();
+    }
+
+    @Scheduled(fixedDelayString = "${healthcheck.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        List<HealthCheck> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                flushTimer.record(() -> insert(batch));
+                flushedCounter.increment(batch.size());
+                log.debug("Flushed {} buffered health check records", batch.size());
+            } catch (Exception e) {
+                // Put the rows back (as far as they fit) and retry on the next run
+                failedCounter.increment();
+                int requeued = 0;
+                for (HealthCheck healthCheck : batch) {
+                    if (buffer.offer(healthCheck)) {
+                        requeued++;
+                    }
+                }
+                log.error("Failed to flush {} health check records ({} requeued): {}",
+                          batch.size(), requeued, e.getMessage());
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!buffer.isEmpty()) {
+            log.info("Flushing {} buffered health check records before shutdown", buffer.size());
+            flush();
+        }
+    }
+
+    private void insert(List<HealthCheck> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                HealthCheck healthCheck = batch.get(i);
+                ps.setTimestamp(1, Timestamp.from(healthCheck.getCheckDatetime()), (Calendar) UTC.clone());
+                if (healthCheck.getLatencyMicros() != null) {
+                    ps.setLong(2, healthCheck.getLatencyMicros());
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.healthcheck.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.healthcheck.dto.LatencyWindowResponse;
+
+/**
+ * In-memory history of health probe DB latency.
+ *
+ * Time is split into fixed slots (one minute by default) kept in a ring; each
+ * slot is a log-linear histogram with 8 sub-buckets per power of two, so any
+ * reported percentile is within 12.5% of the true value. Recording is one
+ * atomic increment; a window query merges the slots it covers without
+ * touching the database.
+ */
+@Component
+public class ProbeLatencyHistory {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values up to 2^40 µs (~12 days) get their own bucket, larger ones share the last
+    private static final int BUCKETS = (40 - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long slotNanos;
+    private final int[] windowsMinutes;
+    private final Slot[] slots;
+    private final long origin = System.nanoTime();
+
+    public ProbeLatencyHistory(
+            @Value("${healthcheck.history.slot-seconds:60}") long slotSeconds,
+            @Value("${healthcheck.history.windows-minutes:1,5,15,60}") int[] windowsMinutes) {
+        this.slotNanos = TimeUnit.SECONDS.toNanos(Math.max(1, slotSeconds));
+        this.windowsMinutes = windowsMinutes.clone();
+        Arrays.sort(this.windowsMinutes);
+
+        int longest = this.windowsMinutes.length == 0 ? 1 : this.windowsMinutes[this.windowsMinutes.length - 1];
+        int slotCount = (int) Math.max(1, (TimeUnit.MINUTES.toNanos(longest) + slotNanos - 1) / slotNanos);
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public void record(long latencyMicros) {
+        long epoch = currentEpoch();
+        slots[(int) (epoch % slots.length)].record(epoch, bucketOf(Math.max(0, latencyMicros)));
+    }
+
+    /**
+     * @return percentiles for every configured window, shortest first
+     */
+    public List<LatencyWindowResponse> snapshot() {
+        long epoch = currentEpoch();
+        List<LatencyWindowResponse> windows = new ArrayList<>(windowsMinutes.length);
+        for (int minutes : windowsMinutes) {
+            int slotsInWindow = (int) Math.min(slots.length,
+                    Math.max(1, (TimeUnit.MINUTES.toNanos(minutes) + slotNanos - 1) / slotNanos));
+            long[] merged = new long[BUCKETS];
+            long count = 0;
+            for (int back = 0; back < slotsInWindow; back++) {
+                long slotEpoch = epoch - back;
+                if (slotEpoch < 0) {
+                    break;
+                }
+                count += slots[(int) (slotEpoch % slots.length)].addTo(slotEpoch, merged);
+            }
+            windows.add(new LatencyWindowResponse(minutes, count,
+                    percentile(merged, count, 0.50),
+                    percentile(merged, count, 0.95),
+                    percentile(merged, count, 0.99),
+                    percentile(merged, count, 1.0)));
+        }
+        return windows;
+    }
+
+    private long currentEpoch() {
+        return (System.nanoTime() - origin) / slotNanos;
+    }
+
+    private static Long percentile(long[] buckets, long count, double quantile) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return representativeValue(i);
+            }
+        }
+        return representativeValue(buckets.length - 1);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket);
+    }
+
+    // Midpoint of the bucket's value range
+    static long representativeValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) + (bucket % SUB_BUCKETS) * width;
+        return lower + width / 2;
+    }
+
+    private static final class Slot {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private volatile long epoch = -1;
+
+        private void record(long currentEpoch, int bucket) {
+            if (epoch != currentEpoch) {
+                rollTo(currentEpoch);
+            }
+            counts.incrementAndGet(bucket);
+        }
+
+        // Reusing a slot for a new period is rare (once per slot length), so a lock is fine here
+        private synchronized void rollTo(long currentEpoch) {
+            if (epoch == currentEpoch) {
+                return;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            epoch = currentEpoch;
+        }
+
+        private long addTo(long expectedEpoch, long[] merged) {
+            if (epoch != expectedEpoch) {
+                return 0;
+            }
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long n = counts.get(i);
+                merged[i] += n;
+                total += n;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.healthcheck.service;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cached dependency checks behind /readyz.
+ *
+ * Every check is refreshed on its own interval by a small background scheduler
+ * and only its latest result is kept, so a readiness probe reads memory and
+ * never waits on the database, S3 or SNS. A check counts as failed until its
+ * first refresh and when its result is older than three refresh intervals
+ * (e.g. the call is hanging).
+ */
+@Slf4j
+@Service
+public class ReadinessService {
+
+    private final List<CachedCheck> checks;
+    private final ScheduledExecutorService scheduler;
+
+    public ReadinessService(
+            @Value("${healthcheck.readiness.database.enabled:true}") boolean databaseEnabled,
+            @Value("${healthcheck.readiness.database.refresh-interval-ms:5000}") long databaseIntervalMs,
+            @Value("${healthcheck.readiness.database.timeout-seconds:2}") int databaseTimeoutSeconds,
+            @Value("${healthcheck.readiness.s3.enabled:true}") boolean s3Enabled,
+            @Value("${healthcheck.readiness.s3.refresh-interval-ms:30000}") long s3IntervalMs,
+            @Value("${healthcheck.readiness.sns.enabled:true}") boolean snsEnabled,
+            @Value("${healthcheck.readiness.sns.refresh-interval-ms:60000}") long snsIntervalMs,
+            DataSource dataSource,
+            ObjectProvider<S3Service> s3Service,
+            SnsService snsService) {
+        S3Service s3 = s3Service.getIfAvailable();  // not present in the test profile
+
+        this.checks = new ArrayList<>();
+        if (databaseEnabled) {
+            checks.add(new CachedCheck("database", databaseIntervalMs, () -> isDatabaseReachable(dataSource, databaseTimeoutSeconds)));
+        }
+        if (s3Enabled && s3 != null) {
+            checks.add(new CachedCheck("s3", s3IntervalMs, s3::isBucketReachable));
+        }
+        if (snsEnabled) {
+            checks.add(new CachedCheck("sns", snsIntervalMs, snsService::isSnsConfigured));
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, checks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "readiness-check-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        log.info("Readiness checks: {}", checks.stream().map(check -> check.name).toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (CachedCheck check : checks) {
+            scheduler.scheduleWithFixedDelay(check::refresh, 0, check.intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isReady() {
+        long now = System.nanoTime();
+        return checks.stream().allMatch(check -> check.isUp(now));
+    }
+
+    /**
+     * @return per-check status and age of the cached result, for the /readyz body
+     */
+    public Map<String, Object> describe() {
+        long now = System.nanoTime();
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (CachedCheck check : checks) {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("status", check.isUp(now) ? "UP" : "DOWN");
+            detail.put("age_ms", check.ageMillis(now));
+            result.put(check.name, detail);
+        }
+        return result;
+    }
+
+    // A real round trip (driver ping) on the readiness thread: pool state alone looks
+    // healthy for an idle pool even when the database is gone. A hanging connect goes
+    // stale after three intervals and reads as DOWN.
+    private static boolean isDatabaseReachable(DataSource dataSource, int timeoutSeconds) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(timeoutSeconds);
+        } catch (Exception e) {
+            log.warn("Database readiness check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static final class CachedCheck {
+        private final String name;
+        private final long intervalMs;
+        private final BooleanSupplier probe;
+
+        private volatile boolean up = false;
+        private volatile long checkedAtNanos = 0;
+        private volatile boolean checked = false;
+
+        private CachedCheck(String name, long intervalMs, BooleanSupplier probe) {
+            this.name = name;
+            this.intervalMs = intervalMs;
+            this.probe = probe;
+        }
+
+        private void refresh() {
+            boolean result;
+            try {
+                result = probe.getAsBoolean();
+            } catch (Exception e) {
+                log.warn("Readiness check {} failed: {}", name, e.getMessage());
+                result = false;
+            }
+            if (result != up && checked) {
+                log.info("Readiness check {} changed to {}", name, result ? "UP" : "DOWN");
+            }
+            up = result;
+            checkedAtNanos = System.nanoTime();
+            checked = true;
+        }
+
+        private boolean isUp(long now) {
+            return checked && up && now - checkedAtNanos <= TimeUnit.MILLISECONDS.toNanos(intervalMs * 3);
+        }
+
+        private Long ageMillis(long now) {
+            return checked ? TimeUnit.NANOSECONDS.toMillis(now - checkedAtNanos) : null;
+        }
+    }
+}
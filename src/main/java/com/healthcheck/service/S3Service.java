@@ -8,11 +8,15 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.healthcheck.diagnostics.AwsCallEvent;
+import com.healthcheck.tracing.Span;
+
 import software.amazon.awssdk.auth.credentials.InstanceProfileCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
@@ -45,6 +49,9 @@ public class S3Service {
         String uniqueFileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
         String key = String.format("%s/%s", userId, uniqueFileName);
         
+        AwsCallEvent event = AwsCallEvent.start("s3", "PutObject");
+        Span span = Span.startChild("s3 PutObject");
+        boolean succeeded = false;
         try {
             PutObjectRequest request = PutObjectRequest.builder()
                     .bucket(bucketName)
@@ -55,10 +62,14 @@ public class S3Service {
                     
             s3Client.putObject(request, 
                     RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+            succeeded = true;
                     
             return key;
         } catch (S3Exception e) {
             throw new RuntimeException("Failed to upload file to S3: " + e.getMessage(), e);
+        } finally {
+            event.finish(succeeded);
+            span.end(succeeded);
         }
     }
     
@@ -67,6 +78,9 @@ public class S3Service {
      * @param key S3 object key
      */
     public void deleteFile(String key) {
+        AwsCallEvent event = AwsCallEvent.start("s3", "DeleteObject");
+        Span span = Span.startChild("s3 DeleteObject");
+        boolean succeeded = false;
         try {
             DeleteObjectRequest request = DeleteObjectRequest.builder()
                     .bucket(bucketName)
@@ -74,8 +88,12 @@ public class S3Service {
                     .build();
                     
             s3Client.deleteObject(request);
+            succeeded = true;
         } catch (S3Exception e) {
             throw new RuntimeException("Failed to delete file from S3: " + e.getMessage(), e);
+        } finally {
+            event.finish(succeeded);
+            span.end(succeeded);
         }
     }
     
@@ -85,6 +103,9 @@ public class S3Service {
      * @return true if file exists
      */
     public boolean fileExists(String key) {
+        AwsCallEvent event = AwsCallEvent.start("s3", "HeadObject");
+        Span span = Span.startChild("s3 HeadObject");
+        boolean succeeded = false;
         try {
             HeadObjectRequest request = HeadObjectRequest.builder()
                     .bucket(bucketName)
@@ -92,11 +113,38 @@ public class S3Service {
                     .build();
                     
             s3Client.headObject(request);
+            succeeded = true;
             return true;
         } catch (NoSuchKeyException e) {
+            succeeded = true;
             return false;
         } catch (S3Exception e) {
             throw new RuntimeException("Failed to check file existence: " + e.getMessage(), e);
+        } finally {
+            event.finish(succeeded);
+            span.end(succeeded);
+        }
+    }
+    
+    /**
+     * Check that the configured bucket exists and is accessible with our credentials
+     * @return true if HeadBucket succeeds
+     */
+    public boolean isBucketReachable() {
+        AwsCallEvent event = AwsCallEvent.start("s3", "HeadBucket");
+        Span span = Span.startChild("s3 HeadBucket");
+        boolean succeeded = false;
+        try {
+            s3Client.headBucket(HeadBucketRequest.builder()
+                    .bucket(bucketName)
+                    .build());
+            succeeded = true;
+            return true;
+        } catch (S3Exception e) {
+            return false;
+        } finally {
+            event.finish(succeeded);
+            span.end(succeeded);
         }
     }
 }
\ No newline at end of file
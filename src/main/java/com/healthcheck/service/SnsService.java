@@ -1,6 +1,8 @@
 package com.healthcheck.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthcheck.diagnostics.AwsCallEvent;
+import com.healthcheck.tracing.Span;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -57,7 +59,17 @@ public class SnsService {
                     .build();
             
             // Publish message
-            PublishResponse response = snsClient.publish(publishRequest);
+            AwsCallEvent event = AwsCallEvent.start("sns", "Publish");
+            Span span = Span.startChild("sns Publish");
+            boolean succeeded = false;
+            PublishResponse response;
+            try {
+                response = snsClient.publish(publishRequest);
+                succeeded = true;
+            } finally {
+                event.finish(succeeded);
+                span.end(succeeded);
+            }
             
             log.info("Successfully published user verification message to SNS. MessageId: {}, Email: {}", 
                        response.messageId(), email);
@@ -2,14 +2,20 @@ package com.healthcheck.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.healthcheck.dto.UserCreateRequest;
+import com.healthcheck.dto.UserCredentials;
 import com.healthcheck.dto.UserResponse;
 import com.healthcheck.dto.UserUpdateRequest;
 import com.healthcheck.entity.User;
 import com.healthcheck.repository.UserRepository;
+import com.healthcheck.security.KnownEmailFilter;
+import com.healthcheck.security.PasswordHashingExecutor;
+import com.healthcheck.security.PooledPasswordEncoder;
+import com.healthcheck.security.VerifiedCredentialCache;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
@@ -22,14 +28,21 @@ import lombok.extern.slf4j.Slf4j;
 public class UserService {
     
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final SnsService snsService; // Add SNS service
+    private final VerifiedCredentialCache credentialCache;
+    private final KnownEmailFilter knownEmailFilter;
     
     @Autowired
-    public UserService(UserRepository userRepository, SnsService snsService) {
+    public UserService(UserRepository userRepository, SnsService snsService,
+                       VerifiedCredentialCache credentialCache, PasswordHashingExecutor hashingExecutor,
+                       KnownEmailFilter knownEmailFilter) {
         this.userRepository = userRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        // BCrypt runs on the bounded hashing pool, not on the request thread
+        this.passwordEncoder = new PooledPasswordEncoder(new BCryptPasswordEncoder(), hashingExecutor);
         this.snsService = snsService;
+        this.credentialCache = credentialCache;
+        this.knownEmailFilter = knownEmailFilter;
     }
  
     public UserResponse createUser(UserCreateRequest request) {
@@ -56,6 +69,7 @@ public class UserService {
         
         // Save user to database
         User savedUser = userRepository.save(user);
+        knownEmailFilter.add(savedUser.getUsername());
         
         log.info("Created new user with email: {} (unverified)", request.getEmail());
         
@@ -100,6 +114,8 @@ public class UserService {
         if (request.getPassword() != null && !request.getPassword().trim().isEmpty()) {
             String encryptedPassword = passwordEncoder.encode(request.getPassword());
             user.setPassword(encryptedPassword);
+            // Old password must not keep authenticating from the cache
+            credentialCache.invalidate(email);
         }
         
         User updatedUser = userRepository.save(user);
@@ -121,6 +137,11 @@ public class UserService {
         return userRepository.findByUsername(email);
     }
 
+    @Transactional(readOnly = true)
+    public UserCredentials findCredentialsByEmail(String email) {
+        return userRepository.findCredentialsByUsername(email);
+    }
+
     @Transactional(readOnly = true)
     public boolean userExistsWithEmail(String email) {
         return userRepository.existsByUsername(email);
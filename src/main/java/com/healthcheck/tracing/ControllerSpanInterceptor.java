@@ -0,0 +1,38 @@
+package com.healthcheck.tracing;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Span per controller method ({@code controller UserController.createUser}),
+ * covering the handler and writing its response body.
+ */
+class ControllerSpanInterceptor implements HandlerInterceptor {
+
+    private static final String SPAN = ControllerSpanInterceptor.class.getName() + ".SPAN";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            Span span = Span.startChild("controller " + method.getBeanType().getSimpleName()
+                    + "." + method.getMethod().getName());
+            if (span != Span.NOOP) {
+                request.setAttribute(SPAN, span);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(SPAN) instanceof Span span) {
+            request.removeAttribute(SPAN);
+            span.tag("http.status_code", response.getStatus())
+                .end(ex == null && response.getStatus() < 500);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.healthcheck.tracing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends finished spans as JSON lines to a local file ({@code tracing.exporter=file}).
+ *
+ * Request threads only enqueue; a background thread does the writing. When the
+ * queue is full spans are dropped and counted rather than slowing requests down.
+ * Once the file reaches {@code tracing.file.max-size} it is rotated to
+ * {@code .1}, {@code .2}, ...; only {@code max-backups} rotated files are kept.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tracing.exporter", havingValue = "file", matchIfMissing = true)
+public class FileSpanExporter implements SpanExporter {
+
+    private final Path path;
+    private final long maxSizeBytes;
+    private final int maxBackups;
+    private final BlockingQueue<Span> queue;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public FileSpanExporter(@Value("${tracing.file.path:/opt/webapp/logs/spans.jsonl}") String path,
+                            @Value("${tracing.file.queue-capacity:10000}") int queueCapacity,
+                            @Value("${tracing.file.max-size:100MB}") DataSize maxSize,
+                            @Value("${tracing.file.max-backups:3}") int maxBackups) {
+        this.path = Path.of(path);
+        this.maxSizeBytes = Math.max(1, maxSize.toBytes());
+        this.maxBackups = Math.max(0, maxBackups);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeLoop, "span-file-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void export(Span span) {
+        if (!queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void writeLoop() {
+        List<Span> batch = new ArrayList<>(512);
+        while (running || !queue.isEmpty()) {
+            try {
+                Span first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 511);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Failed to write {} spans to {}: {}", batch.size(), path, e.getMessage());
+            } finally {
+                batch.clear();
+            }
+            long droppedSpans = dropped.getAndSet(0);
+            if (droppedSpans > 0) {
+                log.warn("Span export queue full, dropped {} spans", droppedSpans);
+            }
+        }
+    }
+
+    private void write(List<Span> batch) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long size = Files.exists(path) ? Files.size(path) : 0;
+        Writer out = open();
+        try {
+            for (Span span : batch) {
+                if (size >= maxSizeBytes) {
+                    out.close();
+                    rotate();
+                    size = 0;
+                    out = open();
+                }
+                String line = objectMapper.writeValueAsString(toJson(span)) + "\n";
+                out.write(line);
+                size += line.getBytes(StandardCharsets.UTF_8).length;
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private Writer open() throws IOException {
+        return Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // spans.jsonl -> spans.jsonl.1 -> ... -> spans.jsonl.<max-backups>, the oldest is deleted
+    private void rotate() throws IOException {
+        if (maxBackups == 0) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        Files.deleteIfExists(backup(maxBackups));
+        for (int i = maxBackups - 1; i >= 1; i--) {
+            if (Files.exists(backup(i))) {
+                Files.move(backup(i), backup(i + 1));
+            }
+        }
+        Files.move(path, backup(1));
+    }
+
+    private Path backup(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private static Map<String, Object> toJson(Span span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("trace_id", span.getTraceId());
+        json.put("span_id", span.getSpanId());
+        json.put("parent_span_id", span.getParentSpanId());
+        json.put("name", span.getName());
+        json.put("start_epoch_micros", span.getStartEpochMicros());
+        json.put("duration_micros", span.getDurationMicros());
+        json.put("succeeded", span.isSucceeded());
+        json.put("attributes", span.getAttributes());
+        return json;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,50 @@
+package com.healthcheck.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the most recent finished spans in memory ({@code tracing.exporter=memory}),
+ * mainly for tests.
+ */
+@Component
+@ConditionalOnProperty(name = "tracing.exporter", havingValue = "memory")
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final int capacity;
+    private final ConcurrentLinkedDeque<Span> spans = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public InMemorySpanExporter(@Value("${tracing.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void export(Span span) {
+        spans.addLast(span);
+        if (size.incrementAndGet() > capacity && spans.pollFirst() != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    public List<Span> getSpans(String traceId) {
+        List<Span> matches = new ArrayList<>();
+        for (Span span : spans) {
+            if (span.getTraceId().equals(traceId)) {
+                matches.add(span);
+            }
+        }
+        return matches;
+    }
+
+    public void clear() {
+        spans.clear();
+        size.set(0);
+    }
+}
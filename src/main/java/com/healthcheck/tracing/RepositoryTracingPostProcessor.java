@@ -0,0 +1,50 @@
+package com.healthcheck.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds a span per Spring Data repository call ({@code db UserRepository.save})
+ * to every repository proxy; a no-op outside a sampled trace.
+ */
+@Component
+public class RepositoryTracingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(
+                            new SpanInterceptor("db " + information.getRepositoryInterface().getSimpleName() + "."))));
+        }
+        return bean;
+    }
+
+    private static class SpanInterceptor implements MethodInterceptor {
+
+        private final String prefix;
+
+        SpanInterceptor(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (!Span.current().isSampled()) {
+                return invocation.proceed();
+            }
+            Span span = Span.startChild(prefix + invocation.getMethod().getName());
+            boolean succeeded = false;
+            try {
+                Object result = invocation.proceed();
+                succeeded = true;
+                return result;
+            } finally {
+                span.end(succeeded);
+            }
+        }
+    }
+}
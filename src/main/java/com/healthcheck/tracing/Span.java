@@ -0,0 +1,153 @@
+package com.healthcheck.tracing;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One timed operation within a trace.
+ *
+ * The span being worked on is kept per thread: {@link #startChild(String)}
+ * opens a child of it and makes the child current, {@link #end(boolean)}
+ * hands "current" back to the parent. Outside a sampled trace every call
+ * returns {@link #NOOP}, so instrumented code needs no null checks:
+ *
+ * <pre>
+ * Span span = Span.startChild("s3 PutObject");
+ * try { ... } finally { span.end(succeeded); }
+ * </pre>
+ */
+public final class Span implements AutoCloseable {
+
+    public static final Span NOOP = new Span(null, null, null, null, null, false);
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final boolean sampled;
+    private final Span previous;
+
+    private final long startEpochMicros;
+    private final long startNanos;
+    private long durationNanos = -1;
+    private boolean succeeded = true;
+    private Map<String, String> attributes;
+
+    Span(Tracer tracer, String traceId, String spanId, String parentSpanId, String name, boolean sampled) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.sampled = sampled;
+        this.previous = tracer != null ? CURRENT.get() : null;
+        Instant now = tracer != null ? Instant.now() : Instant.EPOCH;
+        this.startEpochMicros = TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + now.getNano() / 1_000;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * @return the span current on this thread, or {@link #NOOP}
+     */
+    public static Span current() {
+        Span span = CURRENT.get();
+        return span != null ? span : NOOP;
+    }
+
+    /**
+     * Start a child of the current span; {@link #NOOP} unless the current trace is sampled.
+     */
+    public static Span startChild(String name) {
+        Span parent = CURRENT.get();
+        if (parent == null || !parent.sampled) {
+            return NOOP;
+        }
+        return parent.tracer.activate(new Span(parent.tracer, parent.traceId, Tracer.newSpanId(),
+                parent.spanId, name, true));
+    }
+
+    static void makeCurrent(Span span) {
+        CURRENT.set(span);
+    }
+
+    public Span tag(String key, Object value) {
+        if (sampled && value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value.toString());
+        }
+        return this;
+    }
+
+    public void end(boolean succeeded) {
+        if (tracer == null || durationNanos >= 0) {
+            return;
+        }
+        durationNanos = System.nanoTime() - startNanos;
+        this.succeeded = succeeded;
+        if (CURRENT.get() == this) {
+            CURRENT.set(previous);
+        }
+        if (sampled) {
+            tracer.export(this);
+        }
+    }
+
+    /**
+     * Ends the span as succeeded; for try-with-resources.
+     */
+    @Override
+    public void close() {
+        end(true);
+    }
+
+    /**
+     * W3C trace context for this span, e.g. {@code 00-<trace-id>-<span-id>-01}.
+     */
+    public String traceparent() {
+        return tracer == null ? null : "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    public long getDurationMicros() {
+        return durationNanos / 1_000;
+    }
+
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes != null ? attributes : Collections.emptyMap();
+    }
+}
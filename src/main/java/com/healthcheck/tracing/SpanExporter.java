@@ -0,0 +1,11 @@
+package com.healthcheck.tracing;
+
+/**
+ * Receives every sampled span once it has ended. Any bean implementing this is
+ * picked up by the {@link Tracer}; exporters are called on the request thread,
+ * so they must not block.
+ */
+public interface SpanExporter {
+
+    void export(Span span);
+}
@@ -0,0 +1,158 @@
+package com.healthcheck.tracing;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts traces for incoming requests and hands finished spans to every
+ * {@link SpanExporter} bean.
+ *
+ * An incoming W3C {@code traceparent} header is continued; otherwise a new
+ * trace is sampled at {@code tracing.sample-rate}. Any client can set the
+ * incoming sampled flag, so it is honoured for at most
+ * {@code tracing.max-forced-per-second} requests per second; beyond that the
+ * local sample rate decides. Unsampled requests still get a trace id for
+ * propagation but record nothing.
+ */
+@Slf4j
+@Component
+public class Tracer {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int maxForcedPerSecond;
+    private final List<SpanExporter> exporters;
+
+    private final AtomicLong forcedWindow = new AtomicLong(-1);
+    private final AtomicInteger forcedInWindow = new AtomicInteger();
+
+    public Tracer(@Value("${tracing.enabled:true}") boolean enabled,
+                  @Value("${tracing.sample-rate:0.01}") double sampleRate,
+                  @Value("${tracing.max-forced-per-second:10}") int maxForcedPerSecond,
+                  ObjectProvider<SpanExporter> exporters) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.maxForcedPerSecond = maxForcedPerSecond;
+        this.exporters = exporters.orderedStream().toList();
+        log.info("Tracing {} (sample rate {}, exporters {})", enabled ? "enabled" : "disabled", sampleRate,
+                 this.exporters.stream().map(e -> e.getClass().getSimpleName()).toList());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start the root span of a request on the current thread.
+     *
+     * @param traceparent incoming header, may be null or malformed (then ignored)
+     */
+    public Span startServerSpan(String name, String traceparent) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        TraceParent parent = TraceParent.parse(traceparent);
+        boolean sampled;
+        if (parent == null) {
+            sampled = sampleLocally();
+        } else {
+            sampled = parent.sampled() && (admitForced() || sampleLocally());
+        }
+        return activate(new Span(this, parent != null ? parent.traceId() : newTraceId(), newSpanId(),
+                parent != null ? parent.spanId() : null, name, sampled));
+    }
+
+    private boolean sampleLocally() {
+        return ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    // Per-second budget for client-requested sampling; a racing reset may let one or two extra through
+    private boolean admitForced() {
+        if (maxForcedPerSecond <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long window = forcedWindow.get();
+        if (window != second && forcedWindow.compareAndSet(window, second)) {
+            forcedInWindow.set(0);
+        }
+        return forcedInWindow.incrementAndGet() <= maxForcedPerSecond;
+    }
+
+    Span activate(Span span) {
+        Span.makeCurrent(span);
+        return span;
+    }
+
+    void export(Span span) {
+        for (SpanExporter exporter : exporters) {
+            try {
+                exporter.export(span);
+            } catch (RuntimeException e) {
+                log.warn("Span exporter {} failed: {}", exporter.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex(random.nextLong(), 16) + hex(random.nextLong() | 1, 16);
+    }
+
+    static String newSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong() | 1, 16);
+    }
+
+    private static String hex(long value, int digits) {
+        char[] chars = new char[digits];
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[i] = HEX[(int) (value & 0xf)];
+            value >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Parsed {@code version-traceid-parentid-flags}; null if the header is absent or invalid.
+     */
+    record TraceParent(String traceId, String spanId, boolean sampled) {
+
+        static TraceParent parse(String header) {
+            if (header == null || header.length() < 55) {
+                return null;
+            }
+            String[] parts = header.trim().split("-");
+            if (parts.length < 4 || parts[0].length() != 2 || parts[0].equals("ff")
+                    || (parts[0].equals("00") && parts.length != 4)
+                    || !isHex(parts[0], 2) || !isHex(parts[1], 32) || !isHex(parts[2], 16) || !isHex(parts[3], 2)
+                    || parts[1].chars().allMatch(c -> c == '0') || parts[2].chars().allMatch(c -> c == '0')) {
+                return null;
+            }
+            boolean sampled = (Integer.parseInt(parts[3], 16) & 1) == 1;
+            return new TraceParent(parts[1], parts[2], sampled);
+        }
+
+        private static boolean isHex(String value, int length) {
+            if (value.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
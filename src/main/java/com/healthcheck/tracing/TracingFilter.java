@@ -0,0 +1,85 @@
+package com.healthcheck.tracing;
+
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.healthcheck.metrics.RouteResolver;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens the server span for each request, continuing an incoming W3C
+ * {@code traceparent}, and returns the request's own traceparent in the
+ * response. A "security" child span covers everything up to the end of
+ * Spring Security's chain.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACEPARENT = "traceparent";
+    private static final String SECURITY_SPAN = TracingFilter.class.getName() + ".SECURITY_SPAN";
+
+    private final Tracer tracer;
+    private final RouteResolver routeResolver;
+
+    public TracingFilter(Tracer tracer, RouteResolver routeResolver) {
+        this.tracer = tracer;
+        this.routeResolver = routeResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tracer.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = tracer.startServerSpan("http " + request.getMethod(), request.getHeader(TRACEPARENT));
+        response.setHeader(TRACEPARENT, span.traceparent());
+
+        Span securitySpan = Span.startChild("security");
+        request.setAttribute(SECURITY_SPAN, securitySpan);
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            chain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            // Still open if Spring Security rejected the request
+            securitySpan.end(false);
+            request.removeAttribute(SECURITY_SPAN);
+            if (span.isSampled()) {
+                span.tag("http.method", request.getMethod())
+                    .tag("http.route", routeResolver.resolve(request, status))
+                    .tag("http.status_code", status);
+            }
+            span.end(status < 500);
+        }
+    }
+
+    /**
+     * Ends the "security" span once a request has made it through Spring Security.
+     */
+    @Component
+    @Order(SecurityProperties.DEFAULT_FILTER_ORDER + 5)
+    static class SecurityPassedMarker extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            if (request.getAttribute(SECURITY_SPAN) instanceof Span securitySpan) {
+                securitySpan.end(true);
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
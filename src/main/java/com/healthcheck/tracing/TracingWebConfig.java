@@ -0,0 +1,23 @@
+package com.healthcheck.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class TracingWebConfig implements WebMvcConfigurer {
+
+    private final boolean enabled;
+
+    public TracingWebConfig(@Value("${tracing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new ControllerSpanInterceptor());
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.healthcheck;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.healthcheck.entity.User;
+import com.healthcheck.repository.UserRepository;
+
+import static io.restassured.RestAssured.given;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
 
 
 /**
@@ -18,9 +24,16 @@ import io.restassured.http.ContentType;
 
 public abstract class BaseIntegrationTest {
 
+    // Listed in security.admin.emails in application-test.properties
+    protected static final String ADMIN_EMAIL = "diagnostics-admin@example.com";
+    protected static final String ADMIN_PASSWORD = "DiagnosticsAdmin123!";
+
     @LocalServerPort
     protected int port;
 
+    @Autowired
+    protected UserRepository userRepository;
+
     protected String baseUrl;
 
     @BeforeEach
@@ -42,6 +55,27 @@ public abstract class BaseIntegrationTest {
                 .encodeToString((username + ":" + password).getBytes());
     }
     
+    /**
+     * Request spec authenticated as the admin account, creating and verifying it on first use
+     */
+    protected RequestSpecification adminAuth() {
+        User admin = userRepository.findByUsername(ADMIN_EMAIL);
+        if (admin == null) {
+            given()
+                .contentType(ContentType.JSON)
+                .body(createUserJson(ADMIN_EMAIL, ADMIN_PASSWORD, "Diagnostics", "Admin"))
+                .when()
+                    .post("/v1/user");
+            admin = userRepository.findByUsername(ADMIN_EMAIL);
+        }
+        // There is no email in tests, so mark the account verified directly
+        if (!admin.isVerified()) {
+            admin.setVerified(true);
+            userRepository.save(admin);
+        }
+        return given().auth().preemptive().basic(ADMIN_EMAIL, ADMIN_PASSWORD);
+    }
+
     /**
      * Helper method to generate test user data
      */
@@ -0,0 +1,242 @@
+package com.healthcheck;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import static io.restassured.RestAssured.given;
+import io.restassured.http.ContentType;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Diagnostics Tests - Instrumentation that is off or thresholded by default, and diagnostics file output
+ * Runs in its own context (database, JFR and profile directories) with the switches turned on, so the
+ * other test classes keep the default configuration
+ */
+@TestMethodOrder(OrderAnnotation.class)
+@DisplayName("Diagnostics Tests")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:diagnosticsdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "metrics.server-timing.enabled=true",
+        "diagnostics.slow-requests.threshold-ms=0",
+        "diagnostics.jfr.max-files=" + DiagnosticsTest.MAX_FILES,
+        "diagnostics.profiler.max-files=" + DiagnosticsTest.MAX_FILES
+})
+public class DiagnosticsTest extends BaseIntegrationTest {
+
+    static final int MAX_FILES = 3;
+
+    // New for every run, so file retention only ever sees the files seeded here
+    private static final Path JFR_DIRECTORY = createDirectory("jfr-");
+    private static final Path PROFILER_DIRECTORY = createDirectory("profiles-");
+
+    @DynamicPropertySource
+    static void diagnosticsDirectories(DynamicPropertyRegistry registry) {
+        registry.add("diagnostics.jfr.directory", JFR_DIRECTORY::toString);
+        registry.add("diagnostics.profiler.directory", PROFILER_DIRECTORY::toString);
+    }
+
+    private static Path createDirectory(String prefix) {
+        try {
+            Path target = Files.createDirectories(Path.of("target"));
+            return Files.createTempDirectory(target, prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Create MAX_FILES empty files named prefix + 2000-01-0N timestamp + suffix, older than any real output
+     */
+    private static List<Path> seedOldFiles(Path directory, String prefix, String suffix) throws IOException {
+        List<Path> seeded = new ArrayList<>();
+        for (int day = 1; day <= MAX_FILES; day++) {
+            seeded.add(Files.write(directory.resolve(prefix + "2000010" + day + "-000000" + suffix), new byte[0]));
+        }
+        return seeded;
+    }
+
+    private static long countFiles(Path directory, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private String generateUniqueEmail(String prefix) {
+        return prefix + System.currentTimeMillis() + "@example.com";
+    }
+
+    // ========== SERVER-TIMING TESTS ==========
+
+    @Test
+    @Order(1)
+    @DisplayName("POST /v1/user - Server-Timing header breaks down auth, db, serialization and total")
+    void testServerTimingHeader() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(createUserJson(generateUniqueEmail("timing"), "ServerTiming123!", "Server", "Timing"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201)
+                .header("Server-Timing", allOf(
+                        containsString("auth;dur="),
+                        containsString("db;dur="),
+                        containsString("ser;dur="),
+                        containsString("total;dur=")))
+                // db counts JDBC statements (existence check + insert), not the whole service call with hashing
+                .header("Server-Timing", matchesPattern(".*db;dur=[0-9.]+;desc=\"\\d+ calls\".*"))
+                .body("id", notNullValue());
+    }
+
+    // ========== SLOW REQUEST TESTS ==========
+
+    @Test
+    @Order(10)
+    @DisplayName("GET /actuator/slowrequests - Records carry route, phases and executed SQL")
+    void testSlowRequests_RecordsSql() {
+        String email = generateUniqueEmail("slow");
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(createUserJson(email, "SlowRequest123!", "Slow", "Request"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201);
+
+        // Threshold 0 here, so every request is recorded
+        String signup = "requests.find { it.method == 'POST' && it.route == '/v1/user' }";
+        adminAuth()
+            .when()
+                .get("/actuator/slowrequests")
+            .then()
+                .statusCode(200)
+                .body("enabled", equalTo(true))
+                .body(signup + ".status", equalTo(201))
+                .body(signup + ".phases_ms.total", notNullValue())
+                .body(signup + ".sql.sql", hasItem(containsString("insert into users")))
+                .body(signup + ".sql.duration_ms", everyItem(notNullValue()));
+    }
+
+    // ========== JFR AND PROFILER TESTS ==========
+
+    @Test
+    @Order(20)
+    @DisplayName("POST/DELETE /actuator/jfr - Bounded recording captures request events")
+    void testFlightRecording_Success() throws Exception {
+        // A full directory: starting a recording must delete the oldest to stay at max-files
+        List<Path> seeded = seedOldFiles(JFR_DIRECTORY, "recording-", ".jfr");
+
+        String file = adminAuth()
+            .contentType(ContentType.JSON)
+            .body("{\"durationSeconds\": 60}")
+            .when()
+                .post("/actuator/jfr")
+            .then()
+                .statusCode(200)
+                .body("running", equalTo(true))
+                .body("duration_seconds", equalTo(60))
+                .extract()
+                .path("file");
+
+        given().when().get("/healthz").then().statusCode(200);
+
+        adminAuth()
+            .when()
+                .delete("/actuator/jfr")
+            .then()
+                .statusCode(200)
+                .body("running", equalTo(false));
+
+        Path recording = Path.of(file);
+        assertEquals(JFR_DIRECTORY.toAbsolutePath(), recording.toAbsolutePath().getParent());
+        assertTrue(Files.exists(recording), "recording written to " + file);
+        boolean sawRequest = RecordingFile.readAllEvents(recording).stream()
+                .anyMatch(event -> event.getEventType().getName().equals("com.healthcheck.HttpRequest")
+                        && "/healthz".equals(event.getString("route")));
+        assertTrue(sawRequest, "HttpRequest event for /healthz");
+
+        assertTrue(Files.notExists(seeded.get(0)), "oldest recording pruned");
+        assertTrue(Files.exists(seeded.get(1)), "newer recordings kept");
+        assertEquals(MAX_FILES, countFiles(JFR_DIRECTORY, "recording-"));
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("POST /actuator/profiler - Samples are written as collapsed stacks per route")
+    void testSamplingProfiler_Success() throws Exception {
+        String email = generateUniqueEmail("profiler");
+        String password = "ProfilerPass123!";
+
+        String userId = given()
+            .contentType(ContentType.JSON)
+            .body(createUserJson(email, password, "Profiler", "Test"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201)
+                .extract()
+                .path("id").toString();
+
+        // A full directory: writing the profile must delete the oldest to stay at max-files
+        List<Path> seeded = seedOldFiles(PROFILER_DIRECTORY, "profile-", ".collapsed");
+
+        String file = adminAuth()
+            .contentType(ContentType.JSON)
+            .body("{\"durationSeconds\": 1, \"rateHz\": 100}")
+            .when()
+                .post("/actuator/profiler")
+            .then()
+                .statusCode(200)
+                .body("running", equalTo(true))
+                .extract()
+                .path("file");
+
+        // Keep request threads busy until the session ends
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (adminAuth().when().get("/actuator/profiler").then().extract().<Boolean>path("running")
+                && System.currentTimeMillis() < deadline) {
+            given().auth().preemptive().basic(email, password).when().get("/v1/user/" + userId);
+        }
+
+        adminAuth()
+            .when()
+                .get("/actuator/profiler")
+            .then()
+                .statusCode(200)
+                .body("running", equalTo(false))
+                .body("file", equalTo(file));
+
+        List<String> lines = Files.readAllLines(Path.of(file));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("GET /v1/user/{userId};")),
+                "collapsed stacks for GET /v1/user/{userId}");
+
+        assertTrue(Files.notExists(seeded.get(0)), "oldest profile pruned");
+        assertTrue(Files.exists(seeded.get(1)), "newer profiles kept");
+        assertEquals(MAX_FILES, countFiles(PROFILER_DIRECTORY, "profile-"));
+    }
+}
@@ -4,11 +4,16 @@ import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.healthcheck.config.MetricsConfig;
 
 import static io.restassured.RestAssured.given;
 import io.restassured.http.ContentType;
@@ -21,6 +26,9 @@ import io.restassured.http.ContentType;
 @DisplayName("Edge Case Tests")
 public class EdgeCaseTest extends BaseIntegrationTest {
 
+    @Autowired
+    private MetricsConfig metricsConfig;
+
     private String generateUniqueEmail(String prefix) {
         return prefix + System.currentTimeMillis() + "@example.com";
     }
@@ -732,4 +740,32 @@ public class EdgeCaseTest extends BaseIntegrationTest {
                 .statusCode(201)
                 .time(lessThan(3000L));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(27)
+    @DisplayName("Request metrics - Unknown methods and out-of-range statuses use fixed tags")
+    void testRequestMetrics_BoundedTags() {
+        given()
+            .when()
+                .request("FOOBAR", "/healthz")
+            .then()
+                .statusCode(anyOf(equalTo(400), equalTo(401), equalTo(405)));
+
+        given()
+            .queryParam("tag", "method:OTHER")
+            .when()
+                .get("/actuator/metrics/api.calls")
+            .then()
+                .statusCode(200);
+        given()
+            .queryParam("tag", "method:FOOBAR")
+            .when()
+                .get("/actuator/metrics/api.calls")
+            .then()
+                .statusCode(404);
+
+        MetricsConfig.RequestMeters meters = metricsConfig.getRequestMeters("/healthz", "GET", 999);
+        assertEquals("UNKNOWN", meters.calls().getId().getTag("status"));
+        assertEquals(meters, metricsConfig.getRequestMeters("/healthz", "GET", 42));
+    }
+}
@@ -2,11 +2,57 @@ package com.healthcheck;
 
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.healthcheck.entity.HealthCheck;
+import com.healthcheck.exception.HashingCapacityExceededException;
+import com.healthcheck.security.LoginThrottle;
+import com.healthcheck.security.PasswordHashingExecutor;
+import com.healthcheck.service.HealthCheckCoalescer;
+import com.healthcheck.service.HealthCheckService;
+import com.healthcheck.service.HealthCheckWriteBuffer;
+import com.healthcheck.service.ReadinessService;
+import com.healthcheck.service.S3Service;
+import com.healthcheck.service.SnsService;
+import com.healthcheck.tracing.FileSpanExporter;
+import com.healthcheck.tracing.Span;
+import com.healthcheck.tracing.SpanExporter;
+import com.healthcheck.tracing.Tracer;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import static io.restassured.RestAssured.given;
 import io.restassured.http.ContentType;
@@ -19,6 +65,21 @@ import io.restassured.http.ContentType;
 @DisplayName("Negative Test Cases")
 public class NegativeTest extends BaseIntegrationTest {
 
+    @Autowired
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Value("${security.login-throttle.max-failures-per-ip}")
+    private int maxFailuresPerIp;
+
     private String generateUniqueEmail(String prefix) {
         return prefix + System.currentTimeMillis() + "@example.com";
     }
@@ -71,6 +132,40 @@ public class NegativeTest extends BaseIntegrationTest {
 
     // ========== USER MANAGEMENT NEGATIVE TESTS ==========
 
+    @Test
+    @Order(5)
+    @DisplayName("ReadinessService - Unreachable database reads as DOWN")
+    void testReadiness_DatabaseUnreachable() throws InterruptedException {
+        // Idle pool (no connections, nobody waiting) in front of a database that is down:
+        // nothing listens on port 1, so every connection attempt fails
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:tcp://localhost:1/nowhere");
+        config.setInitializationFailTimeout(-1);
+        config.setConnectionTimeout(500);
+        HikariDataSource unreachable = new HikariDataSource(config);
+
+        ReadinessService readiness = new ReadinessService(true, 60_000, 1, false, 60_000, false, 60_000,
+                unreachable, applicationContext.getBeanProvider(S3Service.class),
+                applicationContext.getBean(SnsService.class));
+        try {
+            readiness.start();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (describeDatabase(readiness).get("age_ms") == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("DOWN", describeDatabase(readiness).get("status"));
+            assertFalse(readiness.isReady());
+        } finally {
+            readiness.shutdown();
+            unreachable.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> describeDatabase(ReadinessService readiness) {
+        return (Map<String, Object>) readiness.describe().get("database");
+    }
+
     @Test
     @Order(10)
     @DisplayName("POST /v1/user - Missing required fields")
@@ -339,6 +434,18 @@ public class NegativeTest extends BaseIntegrationTest {
                 .statusCode(anyOf(equalTo(404), equalTo(405))); // 可能是 Not Found 或 Method Not Allowed
     }
 
+    @Test
+    @Order(19)
+    @DisplayName("GET /v1/user/{id} - Invalid bearer token")
+    void testGetUser_InvalidBearerToken() {
+        given()
+            .header("Authorization", "Bearer not-a-valid.token")
+            .when()
+                .get("/v1/user/1")
+            .then()
+                .statusCode(401);
+    }
+
     // ========== PRODUCT MANAGEMENT NEGATIVE TESTS ==========
 
     @Test
@@ -815,4 +922,420 @@ public class NegativeTest extends BaseIntegrationTest {
             .then()
                 .statusCode(anyOf(equalTo(401), equalTo(404)));  // 或 401 如果被 Security 攔截
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(32)
+    @DisplayName("GET /v1/user/{id} - Repeated failed logins are throttled")
+    void testGetUser_RepeatedFailuresThrottled() {
+        String email = generateUniqueEmail("throttled");
+
+        for (int i = 0; i < 10; i++) {
+            given()
+                .auth().preemptive().basic(email, "WrongPassword123!")
+                .when()
+                    .get("/v1/user/1")
+                .then()
+                    .statusCode(401);
+        }
+
+        given()
+            .auth().preemptive().basic(email, "WrongPassword123!")
+            .when()
+                .get("/v1/user/1")
+            .then()
+                .statusCode(429)
+                .header("Retry-After", notNullValue());
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("GET /v1/user/{id} - Unknown user while the hashing pool is saturated gets 503")
+    void testGetUser_HashingPoolSaturated() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean saturated = new AtomicBoolean();
+        ExecutorService callers = Executors.newCachedThreadPool();
+        try {
+            // Occupy every hashing thread and queue slot until a submission is shed
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!saturated.get() && System.currentTimeMillis() < deadline) {
+                callers.submit(() -> {
+                    try {
+                        hashingExecutor.execute(() -> {
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return null;
+                        });
+                    } catch (HashingCapacityExceededException e) {
+                        saturated.set(true);
+                    }
+                });
+                Thread.sleep(2);
+            }
+            assertTrue(saturated.get(), "hashing pool saturated");
+
+            // Unknown emails still run the timing-attack dummy BCrypt check on the pool
+            given()
+                .auth().preemptive().basic(generateUniqueEmail("saturated"), "SomePassword123!")
+                .when()
+                    .get("/v1/user/1")
+                .then()
+                    .statusCode(503)
+                    .header("Retry-After", notNullValue());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("GET /v1/user/{id} - Per-IP throttle keys on the forwarded client, not the proxy")
+    void testGetUser_IpThrottleUsesForwardedClient() {
+        // Tests connect from 127.0.0.1, which Tomcat trusts as an internal proxy
+        String sprayer = "203.0.113.10";
+        String bystander = "203.0.113.20";
+
+        // Fill the sprayer's window in-process; sending these as real logins costs a BCrypt check each.
+        // A different email each time keeps the per-email limit out of it
+        for (int i = 0; i < maxFailuresPerIp; i++) {
+            loginThrottle.recordFailure("spray" + i + "-" + System.nanoTime() + "@example.com", sprayer);
+        }
+
+        given()
+            .header("X-Forwarded-For", sprayer)
+            .auth().preemptive().basic(generateUniqueEmail("spray-next"), "Wrong123!")
+            .when()
+                .get("/v1/user/1")
+            .then()
+                .statusCode(429);
+
+        given()
+            .header("X-Forwarded-For", bystander)
+            .auth().preemptive().basic(generateUniqueEmail("bystander"), "Wrong123!")
+            .when()
+                .get("/v1/user/1")
+            .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(40)
+    @DisplayName("POST /actuator/jfr - Starting a recording requires authentication")
+    void testFlightRecording_Unauthenticated() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"durationSeconds\": 10}")
+            .when()
+                .post("/actuator/jfr")
+            .then()
+                .statusCode(401);
+    }
+
+    @Test
+    @Order(41)
+    @DisplayName("POST /actuator/jfr, /actuator/profiler - Self-registered accounts are forbidden")
+    void testDiagnostics_NonAdminForbidden() {
+        String email = generateUniqueEmail("nonadmin");
+        String password = "NonAdminPass123!";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(createUserJson(email, password, "Non", "Admin"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201);
+
+        given()
+            .auth().preemptive().basic(email, password)
+            .contentType(ContentType.JSON)
+            .body("{\"durationSeconds\": 10}")
+            .when()
+                .post("/actuator/jfr")
+            .then()
+                .statusCode(403);
+
+        given()
+            .auth().preemptive().basic(email, password)
+            .contentType(ContentType.JSON)
+            .body("{\"durationSeconds\": 1}")
+            .when()
+                .post("/actuator/profiler")
+            .then()
+                .statusCode(403);
+
+        given().when().get("/actuator/jfr").then().statusCode(401);
+        given().when().get("/actuator/profiler").then().statusCode(401);
+    }
+
+    @Test
+    @Order(42)
+    @DisplayName("POST /actuator/profiler - Second session while one is running is rejected")
+    void testSamplingProfiler_ConcurrentSession() throws InterruptedException {
+        String body = "{\"durationSeconds\": 1}";
+        adminAuth().contentType(ContentType.JSON).body(body)
+            .when().post("/actuator/profiler")
+            .then().statusCode(200);
+
+        adminAuth()
+            .contentType(ContentType.JSON)
+            .body(body)
+            .when()
+                .post("/actuator/profiler")
+            .then()
+                .statusCode(409)
+                .body("running", equalTo(true));
+
+        // Let the session finish so later tests can start their own
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (adminAuth().when().get("/actuator/profiler").then().extract().<Boolean>path("running")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    @Order(43)
+    @DisplayName("GET /actuator/slowrequests, heavyhitters - Not readable without the admin role")
+    void testDiagnosticReads_RequireAdmin() {
+        String email = generateUniqueEmail("slowreader");
+        String password = "SlowReader123!";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(createUserJson(email, password, "Slow", "Reader"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201);
+
+        given().when().get("/actuator/slowrequests").then().statusCode(401);
+        given()
+            .auth().preemptive().basic(email, password)
+            .when()
+                .get("/actuator/slowrequests")
+            .then()
+                .statusCode(403);
+
+        given().when().get("/actuator/heavyhitters").then().statusCode(401);
+        given()
+            .auth().preemptive().basic(email, password)
+            .when()
+                .get("/actuator/heavyhitters")
+            .then()
+                .statusCode(403);
+    }
+
+    @Test
+    @Order(44)
+    @DisplayName("Tracing - Client-requested sampling beyond the per-second budget is not honoured")
+    void testTracing_ForcedSamplingBudget() {
+        // Local sample rate 0: only the incoming sampled flag can turn recording on
+        Tracer tracer = new Tracer(true, 0.0, 2,
+                new DefaultListableBeanFactory().getBeanProvider(SpanExporter.class));
+        String traceparent = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+        int sampled = 0;
+        for (int i = 0; i < 20; i++) {
+            Span span = tracer.startServerSpan("http GET", traceparent);
+            if (span.isSampled()) {
+                sampled++;
+            }
+            assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", span.getTraceId());
+            span.end(true);
+        }
+        // 2 per second; the loop may straddle one window boundary
+        assertTrue(sampled >= 2 && sampled <= 4, "sampled " + sampled);
+
+        Span unsampled = tracer.startServerSpan("http GET",
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+        assertFalse(unsampled.isSampled());
+        unsampled.end(true);
+    }
+
+    @Test
+    @Order(45)
+    @DisplayName("Tracing - Span file is rotated at its size cap and old files are dropped")
+    void testTracing_SpanFileRotation() throws Exception {
+        Path directory = Path.of("target", "spans-rotation");
+        Path file = directory.resolve("spans.jsonl");
+        Files.createDirectories(directory);
+        for (String name : new String[] {"spans.jsonl", "spans.jsonl.1", "spans.jsonl.2", "spans.jsonl.3"}) {
+            Files.deleteIfExists(directory.resolve(name));
+        }
+
+        FileSpanExporter exporter = new FileSpanExporter(file.toString(), 1_000, DataSize.ofBytes(1_000), 2);
+        Tracer tracer = new Tracer(true, 1.0, 0,
+                new DefaultListableBeanFactory().getBeanProvider(SpanExporter.class));
+        for (int i = 0; i < 50; i++) {
+            Span span = tracer.startServerSpan("http GET", null);
+            span.end(true);
+            exporter.export(span);
+        }
+        exporter.shutdown();
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.exists(directory.resolve("spans.jsonl.1")));
+        assertTrue(Files.exists(directory.resolve("spans.jsonl.2")));
+        assertFalse(Files.exists(directory.resolve("spans.jsonl.3")));
+        // Rotation happens between lines, so a file overshoots the cap by at most one span
+        assertTrue(Files.size(directory.resolve("spans.jsonl.1")) < 2_000);
+    }
+
+    // ========== BACKGROUND WORK NEGATIVE TESTS ==========
+
+    @Test
+    @Order(50)
+    @DisplayName("HealthCheckWriteBuffer - A full buffer refuses records so the caller saves them itself")
+    void testHealthCheckWriteBuffer_Overflow() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HealthCheckWriteBuffer buffer = new HealthCheckWriteBuffer(true, 2, 10, jdbcTemplate, registry);
+        long marker = 9_000_000_000L + System.nanoTime() % 1_000_000_000L;
+        try {
+            assertTrue(buffer.offer(new HealthCheck(Instant.now(), marker)));
+            assertTrue(buffer.offer(new HealthCheck(Instant.now(), marker)));
+            assertFalse(buffer.offer(new HealthCheck(Instant.now(), marker)));
+            assertEquals(2, buffer.pending());
+            assertEquals(1.0, registry.get("healthcheck.buffer.overflow").counter().count());
+
+            buffer.flush();
+            assertEquals(0, buffer.pending());
+            assertEquals(2, countHealthChecks(marker));
+
+            HealthCheckWriteBuffer disabled = new HealthCheckWriteBuffer(false, 2, 10, jdbcTemplate, registry);
+            assertFalse(disabled.offer(new HealthCheck(Instant.now(), marker)));
+            assertEquals(0, disabled.pending());
+        } finally {
+            jdbcTemplate.update("DELETE FROM health_checks WHERE latency_micros = ?", marker);
+        }
+    }
+
+    @Test
+    @Order(51)
+    @DisplayName("HealthCheckWriteBuffer - A failed flush keeps the records for the next run")
+    void testHealthCheckWriteBuffer_FlushFailure() {
+        AtomicInteger failuresLeft = new AtomicInteger(1);
+        JdbcTemplate flaky = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) {
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new DataAccessResourceFailureException("database unavailable");
+                }
+                return super.batchUpdate(sql, pss);
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HealthCheckWriteBuffer buffer = new HealthCheckWriteBuffer(true, 3, 2, flaky, registry);
+        long marker = 9_000_000_000L + System.nanoTime() % 1_000_000_000L;
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(buffer.offer(new HealthCheck(Instant.now(), marker)));
+            }
+
+            // First batch fails: it is requeued and the run stops there
+            buffer.flush();
+            assertEquals(1.0, registry.get("healthcheck.buffer.flush.failed").counter().count());
+            assertEquals(3, buffer.pending());
+            assertEquals(0, countHealthChecks(marker));
+
+            buffer.flush();
+            assertEquals(0, buffer.pending());
+            assertEquals(3, countHealthChecks(marker));
+        } finally {
+            jdbcTemplate.update("DELETE FROM health_checks WHERE latency_micros = ?", marker);
+        }
+    }
+
+    @Test
+    @Order(52)
+    @DisplayName("HealthCheckCoalescer - A probe waiting past max-wait reports unhealthy")
+    void testHealthCheckCoalescer_MaxWait() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HealthCheckService stuckCheck = new HealthCheckService(null, null, null, null) {
+            @Override
+            public boolean performHealthCheck() {
+                started.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+        HealthCheckCoalescer coalescer = new HealthCheckCoalescer(true, 0, 200, stuckCheck, new SimpleMeterRegistry());
+
+        ExecutorService leader = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> leaderResult = leader.submit(coalescer::performHealthCheck);
+            started.await();
+
+            long startedAt = System.currentTimeMillis();
+            assertFalse(coalescer.performHealthCheck());
+            long waited = System.currentTimeMillis() - startedAt;
+            assertTrue(waited >= 200 && waited < 5_000, "waited " + waited + "ms");
+
+            // The leader itself is not cut short
+            release.countDown();
+            assertTrue(leaderResult.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            leader.shutdownNow();
+        }
+    }
+
+    @Test
+    @Order(53)
+    @DisplayName("HealthCheckCoalescer - A failing check reports unhealthy to everyone sharing it")
+    void testHealthCheckCoalescer_LeaderFails() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HealthCheckService failingCheck = new HealthCheckService(null, null, null, null) {
+            @Override
+            public boolean performHealthCheck() {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("database gone");
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HealthCheckCoalescer coalescer = new HealthCheckCoalescer(true, 0, 5_000, failingCheck, registry);
+
+        ExecutorService probes = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> leaderResult = probes.submit(coalescer::performHealthCheck);
+            started.await();
+            Future<Boolean> followerResult = probes.submit(coalescer::performHealthCheck);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (registry.get("healthcheck.probe.requests").tag("result", "coalesced").counter().count() < 1
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertFalse(followerResult.get(5, TimeUnit.SECONDS));
+            try {
+                leaderResult.get(5, TimeUnit.SECONDS);
+                throw new AssertionError("leader should see the failure");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        } finally {
+            release.countDown();
+            probes.shutdownNow();
+        }
+    }
+
+    private int countHealthChecks(long latencyMicros) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM health_checks WHERE latency_micros = ?",
+                Integer.class, latencyMicros);
+    }
+}
@@ -2,16 +2,63 @@ package com.healthcheck;
 
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.healthcheck.entity.HealthCheck;
+import com.healthcheck.entity.HealthCheckRollup;
+import com.healthcheck.entity.User;
+import com.healthcheck.logging.SamplingTurboFilter;
+import com.healthcheck.repository.HealthCheckRepository;
+import com.healthcheck.repository.HealthCheckRollupRepository;
+import com.healthcheck.security.KnownEmailFilter;
+import com.healthcheck.security.VerifiedCredentialCache;
+import com.healthcheck.service.HealthCheckCoalescer;
+import com.healthcheck.service.HealthCheckProber;
+import com.healthcheck.service.HealthCheckRetentionService;
+import com.healthcheck.service.HealthCheckService;
+import com.healthcheck.service.HealthCheckWriteBuffer;
+import com.healthcheck.tracing.InMemorySpanExporter;
+import com.healthcheck.tracing.Span;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.core.spi.FilterReply;
 
 import static io.restassured.RestAssured.given;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.restassured.http.ContentType;
 
 /**
@@ -22,6 +69,27 @@ import io.restassured.http.ContentType;
 @DisplayName("Positive Test Cases")
 public class PositiveTest extends BaseIntegrationTest {
 
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private HealthCheckService healthCheckService;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HealthCheckRepository healthCheckRepository;
+
+    @Autowired
+    private HealthCheckRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     private String generateUniqueEmail(String prefix) {
         return prefix + System.currentTimeMillis() + "@example.com";
     }
@@ -39,6 +107,136 @@ public class PositiveTest extends BaseIntegrationTest {
                 .statusCode(200);
     }
 
+    @Test
+    @Order(2)
+    @DisplayName("GET /livez - Should return 200 OK without authentication")
+    void testLiveness_Success() {
+        given()
+            .when()
+                .get("/livez")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("GET /readyz - Should return 200 OK with check details")
+    void testReadiness_Success() {
+        given()
+            .when()
+                .get("/readyz")
+            .then()
+                .statusCode(200)
+                .body("status", equalTo("UP"))
+                .body("checks.database.status", equalTo("UP"));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /healthz/history - Should return latency percentiles per window")
+    void testHealthCheckHistory_Success() {
+        given()
+            .when()
+                .get("/healthz")
+            .then()
+                .statusCode(200);
+
+        given()
+            .when()
+                .get("/healthz/history")
+            .then()
+                .statusCode(200)
+                .body("[0].window_minutes", equalTo(1))
+                .body("[0].p50_micros", notNullValue())
+                .body("[0].p99_micros", notNullValue());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /actuator/metrics/api.calls - Requests tagged by route template, method and status")
+    void testRequestMetrics_TaggedByRoute() {
+        given().when().get("/healthz").then().statusCode(200);
+        given().when().get("/v1/user/1").then().statusCode(401);
+
+        given()
+            .queryParam("tag", "uri:/healthz", "method:GET", "status:200")
+            .when()
+                .get("/actuator/metrics/api.calls")
+            .then()
+                .statusCode(200);
+
+        // Rejected by Spring Security before dispatch, still tagged with the route
+        given()
+            .queryParam("tag", "uri:/v1/user/{userId}", "status:401")
+            .when()
+                .get("/actuator/metrics/api.calls")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("GET /actuator/metrics - Response time percentiles are published per route")
+    void testRequestMetrics_PercentileGauges() {
+        given().when().get("/healthz").then().statusCode(200);
+
+        given()
+            .queryParam("tag", "uri:/healthz", "phi:0.99")
+            .when()
+                .get("/actuator/metrics/api.response.time.percentile")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("GET /actuator/metrics - Allow-listed groups are published, others dropped")
+    void testMetricsAllowList() {
+        given().when().get("/healthz").then().statusCode(200);
+
+        given().when().get("/actuator/metrics/hikaricp.connections.active").then().statusCode(200);
+        given().when().get("/actuator/metrics/jvm.memory.used").then().statusCode(200);
+        given().when().get("/actuator/metrics/hibernate.sessions.open").then().statusCode(200);
+        given().when().get("/actuator/metrics/tomcat.threads.busy").then().statusCode(200);
+
+        // Spring's own request timer is not in any group
+        given().when().get("/actuator/metrics/http.server.requests").then().statusCode(404);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("GET /actuator/heavyhitters - Authenticated user shows up in the top lists")
+    void testHeavyHitters() {
+        String email = generateUniqueEmail("heavy");
+        String password = "HeavyHitter123!";
+
+        String userId = given()
+            .contentType(ContentType.JSON)
+            .body(createUserJson(email, password, "Heavy", "Hitter"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201)
+                .extract()
+                .path("id").toString();
+
+        // Load counts whatever the outcome, so the status is not checked here
+        for (int i = 0; i < 5; i++) {
+            given().auth().basic(email, password).when().get("/v1/user/" + userId);
+            given().when().get("/v1/product/987654");
+        }
+
+        adminAuth()
+            .when()
+                .get("/actuator/heavyhitters")
+            .then()
+                .statusCode(200)
+                .body("enabled", equalTo(true))
+                .body("users.requests.key", hasItem(userId))
+                .body("users.bytes.key", hasItem(userId))
+                .body("products.requests.key", hasItem("987654"));
+    }
+
     // ========== USER MANAGEMENT POSITIVE TESTS ==========
 
     @Test
@@ -520,4 +718,511 @@ public class PositiveTest extends BaseIntegrationTest {
             .then()
                 .statusCode(404);
     }
-}
\ No newline at end of file
+
+    // ========== ACCESS TOKEN POSITIVE TESTS ==========
+
+    @Test
+    @Order(30)
+    @DisplayName("POST /v1/token - Issue token and use it as Bearer auth")
+    void testIssueToken_Success() {
+        String email = generateUniqueEmail("token");
+        String password = "TokenTestPass123!";
+
+        String userId = given()
+            .contentType(ContentType.JSON)
+            .body(createUserJson(email, password, "Token", "Test"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201)
+                .extract()
+                .path("id").toString();
+
+        String token = given()
+            .auth().basic(email, password)
+            .when()
+                .post("/v1/token")
+            .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("access_token", notNullValue())
+                .body("token_type", equalTo("Bearer"))
+                .body("expires_in", notNullValue())
+                .extract()
+                .path("access_token");
+
+        // Token is accepted instead of Basic credentials (403 while the email is unverified)
+        given()
+            .header("Authorization", "Bearer " + token)
+            .when()
+                .get("/v1/user/" + userId)
+            .then()
+                .statusCode(anyOf(equalTo(200), equalTo(403)));
+    }
+
+    // ========== AUTHENTICATION COMPONENT POSITIVE TESTS ==========
+
+    @Test
+    @Order(31)
+    @DisplayName("KnownEmailFilter - Seeded from the users table and topped up by the scheduled refresh")
+    void testKnownEmailFilter_SeedAndRefresh() {
+        KnownEmailFilter filter = new KnownEmailFilter(true, 1_000, 0.01, 30_000, -1,
+                userRepository, new SimpleMeterRegistry());
+        String existing = insertUserDirectly(generateUniqueEmail("seeded"), "SeededUser123!").getUsername();
+        String unknown = "unknown-" + UUID.randomUUID() + "@example.com";
+
+        // Everything passes until the seed has run
+        assertTrue(filter.mightContain(unknown));
+
+        filter.seed();
+        assertTrue(filter.mightContain(existing));
+        assertTrue(filter.mightContain(existing.toUpperCase()));
+        assertFalse(filter.mightContain(unknown));
+
+        // Created elsewhere after the seed: unknown here until the refresh
+        String later = insertUserDirectly(generateUniqueEmail("refreshed"), "RefreshedUser123!").getUsername();
+        assertFalse(filter.mightContain(later));
+        filter.refresh();
+        assertTrue(filter.mightContain(later));
+    }
+
+    @Test
+    @Order(32)
+    @DisplayName("KnownEmailFilter - A miss re-runs the refresh, at most once per interval")
+    void testKnownEmailFilter_RefreshOnMiss() {
+        KnownEmailFilter filter = new KnownEmailFilter(true, 1_000, 0.01, 30_000, 60_000,
+                userRepository, new SimpleMeterRegistry());
+        filter.seed();
+
+        String otherNode = insertUserDirectly(generateUniqueEmail("othernode"), "OtherNode123!").getUsername();
+        assertTrue(filter.mightContain(otherNode));
+        assertFalse(filter.mightContain("unknown-" + UUID.randomUUID() + "@example.com"));
+
+        // Within the interval misses are answered from the filter alone
+        String tooSoon = insertUserDirectly(generateUniqueEmail("toosoon"), "TooSoon123!").getUsername();
+        assertFalse(filter.mightContain(tooSoon));
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("GET /v1/user/{id} - User created on another instance can log in without waiting for the refresh")
+    void testKnownEmailFilter_UserFromOtherInstanceAuthenticates() throws InterruptedException {
+        String password = "OtherInstance123!";
+        User user = insertUserDirectly(generateUniqueEmail("otherinstance"), password);
+
+        // Another test's miss may have used this second's refresh; the next one is at most 1s away
+        long deadline = System.currentTimeMillis() + 5_000;
+        int status = 0;
+        while (status != 200 && System.currentTimeMillis() < deadline) {
+            status = given()
+                .auth().preemptive().basic(user.getUsername(), password)
+                .when()
+                    .get("/v1/user/" + user.getId())
+                .then()
+                    .extract()
+                    .statusCode();
+            if (status != 200) {
+                Thread.sleep(250);
+            }
+        }
+        assertEquals(200, status);
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("VerifiedCredentialCache - Hits, password changes, invalidation and capacity")
+    void testVerifiedCredentialCache() {
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(true, 300, 3, new SimpleMeterRegistry());
+        String email = "cached@example.com";
+
+        assertFalse(cache.isVerified(email, "Secret123!", "$2a$hash-1"));
+        cache.put(email, "Secret123!", "$2a$hash-1");
+        assertTrue(cache.isVerified(email, "Secret123!", "$2a$hash-1"));
+        assertTrue(cache.isVerified("Cached@Example.com", "Secret123!", "$2a$hash-1"));
+
+        // A wrong password misses without dropping the entry for the right one
+        assertFalse(cache.isVerified(email, "Wrong123!", "$2a$hash-1"));
+        assertTrue(cache.isVerified(email, "Secret123!", "$2a$hash-1"));
+
+        // Stored hash changed (password changed elsewhere): the entry is dead even for the old hash
+        assertFalse(cache.isVerified(email, "Secret123!", "$2a$hash-2"));
+        assertFalse(cache.isVerified(email, "Secret123!", "$2a$hash-1"));
+
+        cache.put(email, "Secret123!", "$2a$hash-1");
+        cache.invalidate("CACHED@example.com");
+        assertFalse(cache.isVerified(email, "Secret123!", "$2a$hash-1"));
+
+        // Full: the oldest entry makes room
+        for (int i = 1; i <= 4; i++) {
+            cache.put("user" + i + "@example.com", "Secret123!", "$2a$hash");
+        }
+        assertFalse(cache.isVerified("user1@example.com", "Secret123!", "$2a$hash"));
+        for (int i = 2; i <= 4; i++) {
+            assertTrue(cache.isVerified("user" + i + "@example.com", "Secret123!", "$2a$hash"));
+        }
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("PUT /v1/user/{id} - Old password stops working after a change even once cached")
+    void testPasswordChange_InvalidatesCachedCredentials() {
+        String oldPassword = "OldPassword123!";
+        String newPassword = "NewPassword123!";
+        String email = generateUniqueEmail("pwchange");
+        given()
+            .contentType(ContentType.JSON)
+            .body(createUserJson(email, oldPassword, "Password", "Change"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201);
+        User user = userRepository.findByUsername(email);
+        user.setVerified(true);
+        userRepository.save(user);
+
+        // Twice, so the second request is served from the cache
+        for (int i = 0; i < 2; i++) {
+            given()
+                .auth().preemptive().basic(user.getUsername(), oldPassword)
+                .when()
+                    .get("/v1/user/" + user.getId())
+                .then()
+                    .statusCode(200);
+        }
+
+        given()
+            .auth().preemptive().basic(user.getUsername(), oldPassword)
+            .contentType(ContentType.JSON)
+            .body("""
+                {
+                  "first_name": "Password",
+                  "last_name": "Change",
+                  "password": "%s"
+                }
+                """.formatted(newPassword))
+            .when()
+                .put("/v1/user/" + user.getId())
+            .then()
+                .statusCode(204);
+
+        given()
+            .auth().preemptive().basic(user.getUsername(), oldPassword)
+            .when()
+                .get("/v1/user/" + user.getId())
+            .then()
+                .statusCode(401);
+        given()
+            .auth().preemptive().basic(user.getUsername(), newPassword)
+            .when()
+                .get("/v1/user/" + user.getId())
+            .then()
+                .statusCode(200);
+    }
+
+    // Writes straight to the shared database, bypassing UserService, as another instance would
+    private User insertUserDirectly(String email, String password) {
+        User user = new User(email, new BCryptPasswordEncoder().encode(password), "Other", "Instance");
+        user.setVerified(true);
+        return userRepository.save(user);
+    }
+
+    // ========== DIAGNOSTICS POSITIVE TESTS ==========
+
+    @Test
+    @Order(42)
+    @DisplayName("POST /v1/user - Incoming traceparent is continued with spans per layer")
+    void testTracing_SignupSpans() throws InterruptedException {
+        String traceId = UUID.randomUUID().toString().replace("-", "");
+        String parentSpanId = "00f067aa0ba902b7";
+
+        given()
+            .header("traceparent", "00-" + traceId + "-" + parentSpanId + "-01")
+            .contentType(ContentType.JSON)
+            .body(createUserJson(generateUniqueEmail("trace"), "TracePass123!", "Trace", "Test"))
+            .when()
+                .post("/v1/user")
+            .then()
+                .statusCode(201)
+                .header("traceparent", matchesPattern("00-" + traceId + "-[0-9a-f]{16}-01"));
+
+        // The server span ends just after the response has been written
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<Span> spans = spanExporter.getSpans(traceId);
+        while (spans.stream().noneMatch(span -> span.getName().equals("http POST"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            spans = spanExporter.getSpans(traceId);
+        }
+
+        Span server = spans.stream().filter(span -> span.getName().equals("http POST")).findFirst().orElseThrow();
+        assertEquals(parentSpanId, server.getParentSpanId());
+        assertEquals("/v1/user", server.getAttributes().get("http.route"));
+        assertEquals("201", server.getAttributes().get("http.status_code"));
+
+        List<String> names = spans.stream().map(Span::getName).toList();
+        assertTrue(names.contains("security"), names.toString());
+        assertTrue(names.contains("controller UserController.createUser"), names.toString());
+        assertTrue(names.contains("password-hash"), names.toString());
+        assertTrue(names.stream().anyMatch(name -> name.startsWith("db UserRepository.")), names.toString());
+    }
+
+    @Test
+    @Order(44)
+    @DisplayName("GET /actuator/metrics - Async log appenders report queue depth and drops")
+    void testAsyncLogging_Metrics() {
+        given()
+            .when()
+                .get("/actuator/metrics/logging.async.queue.capacity")
+            .then()
+                .statusCode(200)
+                .body("availableTags.find { it.tag == 'appender' }.values", hasItem("ASYNC_CONSOLE"))
+                .body("measurements[0].value", greaterThan(0f));
+
+        given()
+            .when()
+                .get("/actuator/metrics/logging.async.dropped")
+            .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @Order(45)
+    @DisplayName("SamplingTurboFilter - Repeated INFO lines beyond the per-second budget are suppressed")
+    void testLogSampling_SuppressesRepeatedTemplates() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setPerSecondBudget(2);
+        filter.setSampleOneIn(0);
+        filter.start();
+        try {
+            Logger logger = (Logger) LoggerFactory.getLogger("com.healthcheck.sampling-test");
+            logger.setLevel(Level.INFO);
+
+            int passed = 0;
+            for (int i = 0; i < 10; i++) {
+                if (filter.decide(null, logger, Level.INFO, "GET /healthz - probe {}", null, null) == FilterReply.NEUTRAL) {
+                    passed++;
+                }
+            }
+            // 2 per second; the loop may straddle one window boundary
+            assertTrue(passed >= 2 && passed <= 4, "passed " + passed);
+            assertEquals(10 - passed, filter.getSuppressedCount());
+
+            // Other templates have their own budget, and WARN always passes
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "another {}", null, null));
+            assertEquals(FilterReply.NEUTRAL,
+                    filter.decide(null, logger, Level.WARN, "GET /healthz - probe {}", null, null));
+        } finally {
+            filter.stop();
+        }
+
+        given()
+            .when()
+                .get("/actuator/metrics/logging.sampling.suppressed")
+            .then()
+                .statusCode(200);
+    }
+
+    // ========== BACKGROUND WORK POSITIVE TESTS ==========
+
+    @Test
+    @Order(50)
+    @DisplayName("HealthCheckProber - Keeps probing while the shared scheduler is busy")
+    void testHealthCheckProber_IndependentOfSharedScheduler() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        // Tie up every thread of the shared @Scheduled pool, like a long retention run would
+        for (int i = 0; i < taskScheduler.getPoolSize(); i++) {
+            taskScheduler.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        HealthCheckProber prober = new HealthCheckProber(true, 50, 1_000, healthCheckService, new SimpleMeterRegistry());
+        try {
+            prober.start();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!prober.isHealthy() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(prober.isHealthy(), "probe ran while the shared scheduler was blocked");
+        } finally {
+            prober.shutdown();
+            release.countDown();
+        }
+    }
+
+    @Test
+    @Order(51)
+    @DisplayName("HealthCheckWriteBuffer - Buffered records are written in batches on flush")
+    void testHealthCheckWriteBuffer_Flush() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HealthCheckWriteBuffer buffer = new HealthCheckWriteBuffer(true, 10, 2, jdbcTemplate, registry);
+        // Marks this test's rows; real probes record latencies far below this
+        long marker = 9_000_000_000L + System.nanoTime() % 1_000_000_000L;
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(buffer.offer(new HealthCheck(Instant.now(), marker)));
+            }
+            assertEquals(5, buffer.pending());
+            assertEquals(0, countHealthChecks(marker));
+
+            buffer.flush();
+            assertEquals(0, buffer.pending());
+            assertEquals(5, countHealthChecks(marker));
+            assertEquals(5.0, registry.get("healthcheck.buffer.flushed").counter().count());
+            assertEquals(3, registry.get("healthcheck.buffer.flush.time").timer().count(), "batches of 2, 2 and 1");
+
+            // Nothing pending: a flush is a no-op
+            buffer.flush();
+            assertEquals(5, countHealthChecks(marker));
+        } finally {
+            jdbcTemplate.update("DELETE FROM health_checks WHERE latency_micros = ?", marker);
+        }
+    }
+
+    @Test
+    @Order(52)
+    @DisplayName("HealthCheckRetentionService - Old rows are folded into per-minute rollups and deleted")
+    void testHealthCheckRetention_Rollup() {
+        // Two hours back with a one-hour horizon: past the cutoff here, well inside the application's own
+        Instant minute = Instant.now().minus(2, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MINUTES);
+        Instant nextMinute = minute.plus(1, ChronoUnit.MINUTES);
+        HealthCheckRetentionService retention = new HealthCheckRetentionService(true, 60, 100, 10,
+                healthCheckRepository, rollupRepository, transactionTemplate, new SimpleMeterRegistry());
+        try {
+            healthCheckRepository.saveAll(List.of(
+                    new HealthCheck(minute.plusSeconds(5), 100L),
+                    new HealthCheck(minute.plusSeconds(20), 300L),
+                    new HealthCheck(minute.plusSeconds(40), null),
+                    new HealthCheck(nextMinute.plusSeconds(1), 50L)));
+
+            retention.rollupAndPurge();
+            assertEquals(0, countRawChecksInMinute(minute));
+            assertEquals(0, countRawChecksInMinute(nextMinute));
+
+            HealthCheckRollup first = rollupRepository.findById(minute).orElseThrow();
+            assertEquals(3, first.getCheckCount());
+            assertEquals(100L, first.getMinLatencyMicros());
+            assertEquals(300L, first.getMaxLatencyMicros());
+            assertEquals(200.0, first.getAvgLatencyMicros(), "checks without a latency are not averaged");
+            assertEquals(1, rollupRepository.findById(nextMinute).orElseThrow().getCheckCount());
+
+            // A late row for a bucket that already exists is merged into it
+            healthCheckRepository.save(new HealthCheck(minute.plusSeconds(50), 20L));
+            retention.rollupAndPurge();
+            HealthCheckRollup merged = rollupRepository.findById(minute).orElseThrow();
+            assertEquals(4, merged.getCheckCount());
+            assertEquals(20L, merged.getMinLatencyMicros());
+            assertEquals(300L, merged.getMaxLatencyMicros());
+            assertEquals(140.0, merged.getAvgLatencyMicros());
+        } finally {
+            rollupRepository.deleteAllById(List.of(minute, nextMinute));
+        }
+    }
+
+    @Test
+    @Order(53)
+    @DisplayName("HealthCheckRetentionService - A run stops after max-batches-per-run full batches")
+    void testHealthCheckRetention_BatchBoundaries() {
+        Instant minute = Instant.now().minus(2, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MINUTES)
+                .minus(10, ChronoUnit.MINUTES);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HealthCheckRetentionService retention = new HealthCheckRetentionService(true, 60, 3, 2,
+                healthCheckRepository, rollupRepository, transactionTemplate, registry);
+        try {
+            for (int i = 0; i < 7; i++) {
+                healthCheckRepository.save(new HealthCheck(minute.plusSeconds(i), 10L * (i + 1)));
+            }
+
+            // Two full batches of 3, the seventh row waits for the next run
+            retention.rollupAndPurge();
+            assertEquals(6.0, registry.get("healthcheck.retention.rolled_up").counter().count());
+            assertEquals(1, countRawChecksInMinute(minute));
+            assertEquals(6, rollupRepository.findById(minute).orElseThrow().getCheckCount());
+
+            // The next run picks up the leftover row in a short batch
+            retention.rollupAndPurge();
+            assertEquals(7.0, registry.get("healthcheck.retention.rolled_up").counter().count());
+            assertEquals(0, countRawChecksInMinute(minute));
+            HealthCheckRollup bucket = rollupRepository.findById(minute).orElseThrow();
+            assertEquals(7, bucket.getCheckCount());
+            assertEquals(10L, bucket.getMinLatencyMicros());
+            assertEquals(70L, bucket.getMaxLatencyMicros());
+
+            // Nothing left: the run is a no-op
+            retention.rollupAndPurge();
+            assertEquals(7.0, registry.get("healthcheck.retention.rolled_up").counter().count());
+        } finally {
+            rollupRepository.deleteById(minute);
+        }
+    }
+
+    @Test
+    @Order(54)
+    @DisplayName("HealthCheckCoalescer - Concurrent probes share one in-flight check")
+    void testHealthCheckCoalescer_SharesInFlightCheck() throws Exception {
+        AtomicInteger checks = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HealthCheckService slowCheck = new HealthCheckService(null, null, null, null) {
+            @Override
+            public boolean performHealthCheck() {
+                checks.incrementAndGet();
+                started.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HealthCheckCoalescer coalescer = new HealthCheckCoalescer(true, 0, 5_000, slowCheck, registry);
+
+        ExecutorService probes = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            results.add(probes.submit(coalescer::performHealthCheck));
+            started.await();
+            for (int i = 0; i < 7; i++) {
+                results.add(probes.submit(coalescer::performHealthCheck));
+            }
+            // Followers are counted as they join, before they wait
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (registry.get("healthcheck.probe.requests").tag("result", "coalesced").counter().count() < 7
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+            assertEquals(1, checks.get());
+            assertEquals(1.0, registry.get("healthcheck.probe.requests").tag("result", "executed").counter().count());
+
+            // Finished and no window: the next probe runs a fresh check
+            assertTrue(coalescer.performHealthCheck());
+            assertEquals(2, checks.get());
+        } finally {
+            release.countDown();
+            probes.shutdownNow();
+        }
+    }
+
+    private long countRawChecksInMinute(Instant minute) {
+        return healthCheckRepository.findOlderThan(minute.plus(1, ChronoUnit.MINUTES), PageRequest.of(0, 10_000))
+                .stream()
+                .filter(row -> !row.getCheckDatetime().isBefore(minute))
+                .count();
+    }
+
+    private int countHealthChecks(long latencyMicros) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM health_checks WHERE latency_micros = ?",
+                Integer.class, latencyMicros);
+    }
+}
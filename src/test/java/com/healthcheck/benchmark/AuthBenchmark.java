@@ -0,0 +1,100 @@
+package com.healthcheck.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.healthcheck.security.AdminAccounts;
+import com.healthcheck.security.AuthenticatedUser;
+import com.healthcheck.security.BearerTokenAuthentication;
+import com.healthcheck.security.CachingDaoAuthenticationProvider;
+import com.healthcheck.security.LoginThrottle;
+import com.healthcheck.security.TokenService;
+import com.healthcheck.security.VerifiedCredentialCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Requests per second of authentication work for each auth mode:
+ * HTTP Basic with a full BCrypt verify, HTTP Basic served from the credential
+ * cache, and a signed bearer token. The user lookup is in-memory so only the
+ * authentication cost itself is measured.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main AuthBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AuthBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "BenchmarkPass123!";
+
+    private CachingDaoAuthenticationProvider bcryptProvider;
+    private CachingDaoAuthenticationProvider cachedProvider;
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        UserDetails user = User.builder()
+                .username(EMAIL)
+                .password(encoder.encode(PASSWORD))
+                .authorities(Collections.emptyList())
+                .build();
+
+        bcryptProvider = provider(new VerifiedCredentialCache(false, 300, 10000, new SimpleMeterRegistry()),
+                encoder, user);
+        cachedProvider = provider(new VerifiedCredentialCache(true, 300, 10000, new SimpleMeterRegistry()),
+                encoder, user);
+
+        tokenService = new TokenService("benchmark-secret-benchmark-secret", 900, new AdminAccounts(""));
+        token = tokenService.issueToken(new AuthenticatedUser(1L, EMAIL, null, true));
+    }
+
+    @Benchmark
+    public Authentication basicAuthBcrypt() {
+        return bcryptProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, PASSWORD));
+    }
+
+    @Benchmark
+    public Authentication basicAuthCached() {
+        return cachedProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, PASSWORD));
+    }
+
+    @Benchmark
+    public Authentication bearerToken() {
+        return new BearerTokenAuthentication(tokenService.verifyToken(token));
+    }
+
+    private static CachingDaoAuthenticationProvider provider(VerifiedCredentialCache cache,
+                                                             BCryptPasswordEncoder encoder,
+                                                             UserDetails user) {
+        CachingDaoAuthenticationProvider provider = new CachingDaoAuthenticationProvider(cache,
+                new LoginThrottle(false, 300, 10, 10, 100, 1000, new SimpleMeterRegistry()));
+        provider.setUserDetailsService(username -> User.withUserDetails(user).build());
+        provider.setPasswordEncoder(encoder);
+        return provider;
+    }
+}
@@ -0,0 +1,77 @@
+package com.healthcheck.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.healthcheck.HealthCheckApplication;
+import com.healthcheck.dto.UserCredentials;
+import com.healthcheck.entity.User;
+import com.healthcheck.repository.UserRepository;
+import com.healthcheck.service.UserService;
+
+/**
+ * Cost of the per-request user lookup in the security path: the full
+ * {@link User} entity versus the {@link UserCredentials} projection. Both go
+ * through the read-only transactional service methods against the H2 test
+ * database, so the numbers include persistence-context and hydration work.
+ *
+ * Run with the GC profiler to see allocation per lookup (gc.alloc.rate.norm):
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main AuthLookupBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AuthLookupBenchmark {
+
+    private static final String EMAIL = "lookup-bench@example.com";
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        // SnsClient needs a region before the context starts
+        System.setProperty("aws.region", "us-east-1");
+        context = new SpringApplicationBuilder(HealthCheckApplication.class)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                .run();
+        userService = context.getBean(UserService.class);
+
+        User user = new User(EMAIL, "$2a$10$abcdefghijklmnopqrstuuN1mrCDKNB1Ny0q9wMuJ0W7NjeuRfbDe",
+                             "Bench", "User");
+        context.getBean(UserRepository.class).save(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User fullEntity() {
+        return userService.findUserByEmail(EMAIL);
+    }
+
+    @Benchmark
+    public UserCredentials projection() {
+        return userService.findCredentialsByEmail(EMAIL);
+    }
+}
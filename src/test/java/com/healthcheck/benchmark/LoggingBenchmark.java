@@ -0,0 +1,115 @@
+package com.healthcheck.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.healthcheck.logging.BoundedAsyncAppender;
+import com.healthcheck.logging.SamplingTurboFilter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+
+/**
+ * Logging cost seen by a request thread for a typical handler (two INFO lines
+ * and one DEBUG line that is filtered out): LogstashEncoder + file appender
+ * called synchronously, behind {@link BoundedAsyncAppender}, and behind both
+ * the async appender and {@link SamplingTurboFilter} with its default budget.
+ *
+ * With never-block on, a saturated async queue sheds INFO instead of slowing
+ * callers; the dropped count is printed at the end of each trial.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main LoggingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async", "async-sampled"})
+    public String mode;
+
+    private LoggerContext context;
+    private BoundedAsyncAppender asyncAppender;
+    private Logger logger;
+    private File logFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("logging-benchmark", ".log").toFile();
+        context = new LoggerContext();
+
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(logFile.getAbsolutePath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        logger = context.getLogger("com.healthcheck.controller.UserController");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        if (mode.startsWith("async")) {
+            asyncAppender = new BoundedAsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setName("ASYNC_FILE");
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            logger.addAppender(asyncAppender);
+        } else {
+            logger.addAppender(fileAppender);
+        }
+        if (mode.endsWith("sampled")) {
+            SamplingTurboFilter sampling = new SamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (asyncAppender != null) {
+            System.out.printf("%n%s: dropped %d INFO events, %d WARN/ERROR waited%n",
+                    mode, asyncAppender.getDroppedCount(), asyncAppender.getBlockedCount());
+        }
+        context.stop();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public void handleRequest() {
+        logger.info("GET /v1/user/{} - Retrieving user", 42);
+        logger.debug("GET /v1/user/{} - Loaded from repository", 42);
+        logger.info("GET /v1/user/{} - User retrieved successfully: {}", 42, "user@example.com");
+    }
+}
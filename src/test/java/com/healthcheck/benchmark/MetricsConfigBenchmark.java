@@ -0,0 +1,71 @@
+package com.healthcheck.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.healthcheck.config.MetricsConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per-request metrics overhead of a typical controller call (request counter
+ * and timer tagged with uri/method/status, plus one database timer): building
+ * and registering the meters every time versus the cached handles in
+ * {@link MetricsConfig}.
+ *
+ * Run with (add -prof gc for allocation per call):
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main MetricsConfigBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(4)
+@Fork(1)
+public class MetricsConfigBenchmark {
+
+    private MeterRegistry registry;
+    private MetricsConfig metricsConfig;
+
+    @Setup
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        metricsConfig = new MetricsConfig(registry);
+    }
+
+    @Benchmark
+    public void builderPerCall(Blackhole blackhole) {
+        blackhole.consume(Counter.builder("api.calls")
+                .tag("uri", "/v1/user/{userId}").tag("method", "GET").tag("status", "200")
+                .register(registry));
+        blackhole.consume(Timer.builder("api.response.time")
+                .tag("uri", "/v1/user/{userId}").tag("method", "GET").tag("status", "200")
+                .register(registry));
+        blackhole.consume(Timer.builder("database.query.time").tag("operation", "find_user").register(registry));
+    }
+
+    @Benchmark
+    public void cachedHandles(Blackhole blackhole) {
+        MetricsConfig.RequestMeters meters = metricsConfig.getRequestMeters("/v1/user/{userId}", "GET", 200);
+        blackhole.consume(meters.calls());
+        blackhole.consume(meters.responseTime());
+        blackhole.consume(metricsConfig.getDatabaseTimer("find_user"));
+    }
+}